@@ -0,0 +1,54 @@
+package com.example.notes.audit;
+
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes an audit partition to a gzip-compressed CSV file in the archive directory, streaming
+ * the rows with PostgreSQL {@code COPY ... TO STDOUT} so the partition is never held in memory.
+ */
+@Component
+public class AuditArchiveExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditArchiveExporter.class);
+
+    private final Path archiveDir;
+
+    public AuditArchiveExporter(@Value("${notes.audit.partitions.archive-dir:data/audit-archive}") Path archiveDir) {
+        this.archiveDir = archiveDir;
+    }
+
+    /**
+     * Exports the partition and returns the archive file. The file only appears once it is complete.
+     *
+     * @param partition a partition name validated by the caller; it is inlined into the COPY statement
+     */
+    public Path export(Connection connection, String partition) throws SQLException, IOException {
+        Files.createDirectories(archiveDir);
+        Path target = archiveDir.resolve(partition + ".csv.gz");
+        Path partial = archiveDir.resolve(partition + ".csv.gz.partial");
+        long rows;
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial))) {
+            rows = connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyOut("COPY " + partition + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+        } catch (SQLException | IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Archived {} audit rows from {} to {}", rows, partition, target);
+        return target;
+    }
+}
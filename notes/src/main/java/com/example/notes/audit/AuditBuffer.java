@@ -0,0 +1,29 @@
+package com.example.notes.audit;
+
+import java.util.List;
+
+/**
+ * Holds audit events between the request thread and {@link AuditWriter}.
+ * There is a single consumer: events handed out by {@link #next} stay in the buffer and are
+ * handed out again until {@link #acknowledge} confirms they were written.
+ */
+public interface AuditBuffer {
+
+    /**
+     * Adds an event, waiting up to {@code timeoutNanos} for space; returns false if it was not accepted.
+     */
+    boolean offer(AuditLog entry, long timeoutNanos) throws InterruptedException;
+
+    /**
+     * Returns up to {@code max} unacknowledged events, oldest first. Waits up to {@code flushIntervalMs}
+     * for the first event and then up to the same interval for the batch to fill.
+     */
+    List<AuditLog> next(int max, long flushIntervalMs) throws InterruptedException;
+
+    /**
+     * Removes the events returned by the last {@link #next} call.
+     */
+    void acknowledge();
+
+    boolean isEmpty();
+}
@@ -0,0 +1,15 @@
+package com.example.notes.audit;
+
+import java.time.Instant;
+
+/**
+ * Criteria for reading audit records; null fields do not filter. {@code from} is inclusive, {@code to} exclusive.
+ */
+public record AuditFilter(Long userId, String action, String entityType, Instant from, Instant to) {
+
+    public AuditFilter {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+    }
+}
@@ -17,8 +17,10 @@ import java.time.Instant;
 @Builder
 public class AuditLog {
 
+    // Pooled sequence instead of IDENTITY so batched inserts do not need a round-trip per row for the key
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_log_seq")
+    @SequenceGenerator(name = "audit_log_seq", sequenceName = "audit_log_id_seq", allocationSize = 100)
     private Long id;
 
     // User who performed the action
@@ -0,0 +1,87 @@
+package com.example.notes.audit;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read side of {@code audit_log}. Both queries order by (timestamp, id) descending with a row-value
+ * keyset predicate, walking the (user_id, timestamp, id) index when a user is given and the
+ * (timestamp, id) index otherwise, so deep pages cost the same as the first.
+ */
+@Repository
+public class AuditLogQueryRepository {
+
+    private static final RowMapper<AuditLog> ROW_MAPPER = (rs, rowNum) -> AuditLog.builder()
+            .id(rs.getLong("id"))
+            .userId(rs.getLong("user_id"))
+            .action(rs.getString("action"))
+            .entityType(rs.getString("entity_type"))
+            .entityId(rs.getObject("entity_id", Long.class))
+            .description(rs.getString("description"))
+            .timestamp(rs.getTimestamp("timestamp").toInstant())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditLogQueryRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public List<AuditLog> findPage(AuditFilter filter, AuditCursor after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        String sql = select(filter, after, params) + " limit :limit";
+        return new NamedParameterJdbcTemplate(jdbcTemplate).query(sql, params, ROW_MAPPER);
+    }
+
+    /**
+     * Streams all matching records to {@code consumer} through a server-side cursor of {@code fetchSize}
+     * rows. On PostgreSQL the cursor is only used inside a transaction.
+     */
+    public void stream(AuditFilter filter, int fetchSize, Consumer<AuditLog> consumer) {
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        new NamedParameterJdbcTemplate(streaming).query(select(filter, null, params), params,
+                rs -> { consumer.accept(ROW_MAPPER.mapRow(rs, 0)); });
+    }
+
+    private static String select(AuditFilter filter, AuditCursor after, MapSqlParameterSource params) {
+        StringBuilder sql = new StringBuilder("""
+                select id, user_id, action, entity_type, entity_id, description, timestamp
+                from audit_log where 1 = 1""");
+        if (filter.userId() != null) {
+            sql.append(" and user_id = :userId");
+            params.addValue("userId", filter.userId());
+        }
+        if (filter.action() != null) {
+            sql.append(" and action = :action");
+            params.addValue("action", filter.action());
+        }
+        if (filter.entityType() != null) {
+            sql.append(" and entity_type = :entityType");
+            params.addValue("entityType", filter.entityType());
+        }
+        if (filter.from() != null) {
+            sql.append(" and timestamp >= :from");
+            params.addValue("from", Timestamp.from(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" and timestamp < :to");
+            params.addValue("to", Timestamp.from(filter.to()));
+        }
+        if (after != null) {
+            sql.append(" and (timestamp, id) < (:afterTimestamp, :afterId)");
+            params.addValue("afterTimestamp", Timestamp.from(after.timestamp()))
+                    .addValue("afterId", after.id());
+        }
+        return sql.append(" order by timestamp desc, id desc").toString();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.notes.audit;
+
+/**
+ * What {@link AuditWriter} does with an event when its buffer is full.
+ */
+public enum AuditOverflowPolicy {
+    /**
+     * Drop the event immediately; requests never wait on audit logging.
+     */
+    DROP,
+    /**
+     * Wait up to the configured block timeout for space, then drop.
+     */
+    BLOCK
+}
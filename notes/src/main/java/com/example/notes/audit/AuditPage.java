@@ -0,0 +1,9 @@
+package com.example.notes.audit;
+
+import java.util.List;
+
+/**
+ * One keyset page of audit records; {@code next} is null on the last page.
+ */
+public record AuditPage(List<AuditLog> entries, AuditCursor next) {
+}
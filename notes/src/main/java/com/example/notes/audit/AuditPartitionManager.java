@@ -0,0 +1,216 @@
+package com.example.notes.audit;
+
+import com.example.notes.common.Databases;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Period;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of {@code audit_log} on PostgreSQL (see V14).
+ *
+ * Runs at startup and daily: creates partitions for the current month and {@code premake-months}
+ * ahead and for every month with rows in the DEFAULT partition (V17), moving those rows out, then archives every partition older than {@code retention} with
+ * {@link AuditArchiveExporter} and drops it. A partition is only dropped after its archive has
+ * been written. A session advisory lock keeps instances from maintaining the table concurrently.
+ * On other databases audit_log is a plain table and this does nothing.
+ */
+@Component
+public class AuditPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditPartitionManager.class);
+
+    private static final String DEFAULT_PARTITION = "audit_log_default";
+    private static final Pattern PARTITION_NAME = Pattern.compile("audit_log_y(\\d{4})m(\\d{2})");
+    // Arbitrary application-wide key for pg_try_advisory_lock
+    private static final long LOCK_KEY = 0x6175646974L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditArchiveExporter exporter;
+    private final boolean enabled;
+    private final int premakeMonths;
+    private final Period retention;
+
+    public AuditPartitionManager(DataSource dataSource,
+                                 AuditArchiveExporter exporter,
+                                 @Value("${notes.audit.partitions.enabled:true}") boolean enabled,
+                                 @Value("${notes.audit.partitions.premake-months:3}") int premakeMonths,
+                                 @Value("${notes.audit.partitions.retention:P12M}") Period retention) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.exporter = exporter;
+        this.enabled = enabled && Databases.isPostgres(dataSource);
+        this.premakeMonths = premakeMonths;
+        this.retention = retention;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${notes.audit.partitions.cron:0 30 3 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                if (!tryLock(connection)) {
+                    log.debug("Audit partitions are being maintained by another instance");
+                    return null;
+                }
+                try {
+                    maintain(connection);
+                } finally {
+                    unlock(connection);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("Audit partition maintenance failed", e);
+        }
+    }
+
+    private void maintain(Connection connection) throws SQLException {
+        YearMonth current = YearMonth.now();
+        Set<YearMonth> wanted = new TreeSet<>(defaultPartitionMonths(connection));
+        for (int i = 0; i <= premakeMonths; i++) {
+            wanted.add(current.plusMonths(i));
+        }
+        Set<YearMonth> existing = new HashSet<>(existingPartitions(connection));
+        for (YearMonth month : wanted) {
+            if (existing.add(month)) {
+                createPartition(connection, month);
+            }
+        }
+        YearMonth oldestKept = YearMonth.from(current.atDay(1).minus(retention));
+        for (YearMonth month : expired(existing, oldestKept)) {
+            String partition = partitionName(month);
+            try {
+                exporter.export(connection, partition);
+            } catch (IOException e) {
+                log.error("Could not archive {}, keeping the partition", partition, e);
+                continue;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE audit_log DETACH PARTITION " + partition);
+                statement.execute("DROP TABLE " + partition);
+            }
+            log.info("Dropped audit partition {}", partition);
+        }
+    }
+
+    /**
+     * Creates the partition as a plain table, moves the month's rows out of the DEFAULT partition
+     * into it and attaches it, all in one transaction: PostgreSQL refuses to attach a range while
+     * the DEFAULT partition still holds rows in it.
+     */
+    private void createPartition(Connection connection, YearMonth month) throws SQLException {
+        String partition = partitionName(month);
+        String from = "'" + month.atDay(1) + "'";
+        String to = "'" + month.plusMonths(1).atDay(1) + "'";
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + partition + " (LIKE audit_log INCLUDING DEFAULTS)");
+            int moved = statement.executeUpdate("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                    + " WHERE timestamp >= " + from + " AND timestamp < " + to + " RETURNING *)"
+                    + " INSERT INTO " + partition + " SELECT * FROM moved");
+            statement.execute("ALTER TABLE audit_log ATTACH PARTITION " + partition
+                    + " FOR VALUES FROM (" + from + ") TO (" + to + ")");
+            connection.commit();
+            if (moved > 0) {
+                log.info("Moved {} audit rows from {} into {}", moved, DEFAULT_PARTITION, partition);
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private List<YearMonth> defaultPartitionMonths(Connection connection) throws SQLException {
+        List<YearMonth> months = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "select distinct extract(year from timestamp)::int, extract(month from timestamp)::int from "
+                        + DEFAULT_PARTITION);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                months.add(YearMonth.of(rs.getInt(1), rs.getInt(2)));
+            }
+        }
+        return months;
+    }
+
+    private List<YearMonth> existingPartitions(Connection connection) throws SQLException {
+        List<YearMonth> months = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("""
+                select child.relname from pg_inherits i
+                join pg_class child on child.oid = i.inhrelid
+                join pg_class parent on parent.oid = i.inhparent
+                where parent.relname = 'audit_log'
+                """);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                parseMonth(rs.getString(1)).ifPresent(months::add);
+            }
+        }
+        return months;
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select pg_try_advisory_lock(?)")) {
+            statement.setLong(1, LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select pg_advisory_unlock(?)")) {
+            statement.setLong(1, LOCK_KEY);
+            statement.execute();
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("audit_log_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+
+    static Optional<YearMonth> parseMonth(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+    }
+
+    static List<YearMonth> expired(Collection<YearMonth> partitions, YearMonth oldestKept) {
+        return partitions.stream()
+                .filter(month -> month.isBefore(oldestKept))
+                .sorted()
+                .toList();
+    }
+}
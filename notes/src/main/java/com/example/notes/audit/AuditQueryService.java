@@ -0,0 +1,48 @@
+package com.example.notes.audit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads audit records for incident review: keyset pages for browsing and a streamed export.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AuditQueryService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final AuditLogQueryRepository repository;
+    private final int exportFetchSize;
+
+    public AuditQueryService(AuditLogQueryRepository repository,
+                             @Value("${notes.audit.export.fetch-size:500}") int exportFetchSize) {
+        this.repository = repository;
+        this.exportFetchSize = exportFetchSize;
+    }
+
+    public AuditPage list(AuditFilter filter, AuditCursor after, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // One extra row tells whether another page exists
+        List<AuditLog> rows = repository.findPage(filter, after, size + 1);
+        if (rows.size() <= size) {
+            return new AuditPage(rows, null);
+        }
+        List<AuditLog> page = rows.subList(0, size);
+        return new AuditPage(page, AuditCursor.of(page.get(size - 1)));
+    }
+
+    /**
+     * Passes every matching record to {@code consumer} without loading them all; the transaction
+     * keeps the database cursor open while the caller writes the response.
+     */
+    public void export(AuditFilter filter, Consumer<AuditLog> consumer) {
+        repository.stream(filter, exportFetchSize, consumer);
+    }
+}
@@ -1,25 +1,21 @@
 package com.example.notes.audit;
 
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 
 /**
- * Service to record audit events asynchronously to avoid blocking request threads.
+ * Records audit events through the write-behind {@link AuditWriter}, so request threads never wait on the database.
  */
 @Service
 public class AuditService {
 
-    private final AuditLogRepository repository;
+    private final AuditWriter writer;
 
-    public AuditService(AuditLogRepository repository) {
-        this.repository = repository;
+    public AuditService(AuditWriter writer) {
+        this.writer = writer;
     }
 
-    @Async
-    @Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRES_NEW)
     public void record(Long userId, String action, String entityType, Long entityId, String description) {
         AuditLog log = AuditLog.builder()
                 .userId(userId)
@@ -29,6 +25,6 @@ public class AuditService {
                 .description(description)
                 .timestamp(Instant.now())
                 .build();
-        repository.save(log);
+        writer.submit(log);
     }
 }
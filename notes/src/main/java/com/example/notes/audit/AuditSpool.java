@@ -0,0 +1,387 @@
+package com.example.notes.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable audit buffer: an append-only spool of memory-mapped segment files on local disk.
+ *
+ * Each segment starts with the offset up to which its records have been written to the database,
+ * followed by records of {@code [length][crc32][payload]}. The length is written last, so a record
+ * torn by a crash fails the checksum or reads as zero and ends the segment. Fully acknowledged
+ * segments are deleted; on startup the remaining segments are replayed from their acknowledged
+ * offset. Delivery is at least once: a crash between the database commit and the acknowledgement
+ * writes that batch again.
+ *
+ * Records are in the page cache as soon as they are appended, so they survive a process crash;
+ * segments are forced to disk when they fill up and on close.
+ */
+public class AuditSpool implements AuditBuffer, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditSpool.class);
+
+    private static final String SUFFIX = ".spool";
+    private static final int HEADER_SIZE = Long.BYTES;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final byte FORMAT_VERSION = 1;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition released = lock.newCondition();
+    // Oldest first; the last segment takes appends
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private long available;
+
+    // End of the records handed out by the last next() call
+    private Segment pendingSegment;
+    private int pendingOffset;
+    private int pendingCount;
+
+    public AuditSpool(Path directory, int segmentSize, int maxSegments) throws IOException {
+        if (segmentSize <= HEADER_SIZE + RECORD_HEADER_SIZE || maxSegments <= 0) {
+            throw new IllegalArgumentException("Audit spool segment size and count must be positive");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        for (int i = 0; i < files.size(); i++) {
+            Segment segment = Segment.open(files.get(i));
+            if (segment.ackOffset >= segment.writeOffset && i < files.size() - 1) {
+                // Shipped completely before the restart, only the deletion was missed
+                segment.delete();
+                continue;
+            }
+            available += segment.countFrom(segment.ackOffset);
+            segments.addLast(segment);
+        }
+        if (segments.isEmpty()) {
+            segments.addLast(Segment.create(directory, 0, segmentSize));
+        }
+        if (available > 0) {
+            log.info("Recovered {} unshipped audit events from {}", available, directory);
+        }
+    }
+
+    @Override
+    public boolean offer(AuditLog entry, long timeoutNanos) throws InterruptedException {
+        byte[] payload = encode(entry);
+        int recordSize = RECORD_HEADER_SIZE + payload.length;
+        if (HEADER_SIZE + recordSize > segmentSize) {
+            log.warn("Audit event {} does not fit into a spool segment", entry.getAction());
+            return false;
+        }
+        lock.lock();
+        try {
+            long remaining = timeoutNanos;
+            Segment tail = segments.getLast();
+            while (!tail.fits(recordSize)) {
+                boolean shipped = tail.ackOffset >= tail.writeOffset && pendingSegment == null;
+                if (segments.size() < maxSegments || shipped) {
+                    tail.force();
+                    Segment next = Segment.create(directory, tail.sequence + 1, segmentSize);
+                    if (shipped) {
+                        // Only the tail is left and everything in it was written: recycle it
+                        segments.removeLast().delete();
+                    }
+                    segments.addLast(next);
+                    tail = next;
+                    break;
+                }
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = released.awaitNanos(remaining);
+                tail = segments.getLast();
+            }
+            tail.append(payload);
+            available++;
+            appended.signal();
+            return true;
+        } catch (IOException e) {
+            log.error("Failed to append audit event to spool {}", directory, e);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<AuditLog> next(int max, long flushIntervalMs) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+            while (available == 0) {
+                if (remaining <= 0) {
+                    return List.of();
+                }
+                remaining = appended.awaitNanos(remaining);
+            }
+            remaining = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+            while (available < max && remaining > 0) {
+                remaining = appended.awaitNanos(remaining);
+            }
+            List<AuditLog> batch = new ArrayList<>(Math.min(max, (int) Math.min(available, Integer.MAX_VALUE)));
+            Iterator<Segment> iterator = segments.iterator();
+            Segment segment = iterator.next();
+            int offset = segment.ackOffset;
+            while (batch.size() < max) {
+                if (offset >= segment.writeOffset) {
+                    if (!iterator.hasNext()) {
+                        break;
+                    }
+                    segment = iterator.next();
+                    offset = segment.ackOffset;
+                    continue;
+                }
+                int length = segment.buffer.getInt(offset);
+                batch.add(decode(segment.payload(offset, length)));
+                offset += RECORD_HEADER_SIZE + length;
+            }
+            pendingSegment = segment;
+            pendingOffset = offset;
+            pendingCount = batch.size();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void acknowledge() {
+        lock.lock();
+        try {
+            if (pendingSegment == null) {
+                return;
+            }
+            while (segments.getFirst() != pendingSegment) {
+                segments.removeFirst().delete();
+            }
+            pendingSegment.acknowledge(pendingOffset);
+            while (segments.size() > 1 && segments.getFirst().ackOffset >= segments.getFirst().writeOffset) {
+                segments.removeFirst().delete();
+            }
+            available -= pendingCount;
+            pendingSegment = null;
+            pendingCount = 0;
+            released.signalAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return available == 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            segments.forEach(Segment::force);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static byte[] encode(AuditLog entry) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            writeNullableLong(out, entry.getUserId());
+            out.writeUTF(entry.getAction());
+            out.writeUTF(entry.getEntityType());
+            writeNullableLong(out, entry.getEntityId());
+            out.writeBoolean(entry.getDescription() != null);
+            if (entry.getDescription() != null) {
+                out.writeUTF(entry.getDescription());
+            }
+            out.writeBoolean(entry.getTimestamp() != null);
+            if (entry.getTimestamp() != null) {
+                out.writeLong(entry.getTimestamp().getEpochSecond());
+                out.writeInt(entry.getTimestamp().getNano());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static AuditLog decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported audit spool record version " + version);
+            }
+            AuditLog.AuditLogBuilder builder = AuditLog.builder()
+                    .userId(readNullableLong(in))
+                    .action(in.readUTF())
+                    .entityType(in.readUTF())
+                    .entityId(readNullableLong(in));
+            if (in.readBoolean()) {
+                builder.description(in.readUTF());
+            }
+            if (in.readBoolean()) {
+                builder.timestamp(Instant.ofEpochSecond(in.readLong(), in.readInt()));
+            }
+            return builder.build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeNullableLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readNullableLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static final class Segment {
+        final long sequence;
+        final Path path;
+        final MappedByteBuffer buffer;
+        int writeOffset;
+        int ackOffset;
+
+        private Segment(long sequence, Path path, MappedByteBuffer buffer) {
+            this.sequence = sequence;
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path directory, long sequence, int size) throws IOException {
+            Path path = directory.resolve(String.format("%020d%s", sequence, SUFFIX));
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                Segment segment = new Segment(sequence, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+                segment.acknowledge(HEADER_SIZE);
+                segment.writeOffset = HEADER_SIZE;
+                return segment;
+            }
+        }
+
+        static Segment open(Path path) throws IOException {
+            String name = path.getFileName().toString();
+            long sequence = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                Segment segment = new Segment(sequence, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+                int offset = HEADER_SIZE;
+                boolean torn = false;
+                while (offset + RECORD_HEADER_SIZE <= segment.buffer.capacity()) {
+                    int length = segment.buffer.getInt(offset);
+                    if (length == 0) {
+                        break;
+                    }
+                    if (length < 0 || offset + RECORD_HEADER_SIZE + length > segment.buffer.capacity()
+                            || !segment.checksumMatches(offset, length)) {
+                        torn = true;
+                        break;
+                    }
+                    offset += RECORD_HEADER_SIZE + length;
+                }
+                if (torn) {
+                    // Clear the torn tail so records appended over it cannot be followed by stale bytes
+                    for (int i = offset; i < segment.buffer.capacity(); i++) {
+                        segment.buffer.put(i, (byte) 0);
+                    }
+                }
+                segment.writeOffset = offset;
+                long ack = segment.buffer.getLong(0);
+                segment.ackOffset = (int) Math.max(HEADER_SIZE, Math.min(ack, offset));
+                return segment;
+            }
+        }
+
+        boolean fits(int recordSize) {
+            return writeOffset + recordSize <= buffer.capacity();
+        }
+
+        void append(byte[] payload) {
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            buffer.put(writeOffset + RECORD_HEADER_SIZE, payload);
+            buffer.putInt(writeOffset + Integer.BYTES, (int) crc.getValue());
+            // Length last: until it is written the record does not exist for a reader after a crash
+            buffer.putInt(writeOffset, payload.length);
+            writeOffset += RECORD_HEADER_SIZE + payload.length;
+        }
+
+        byte[] payload(int offset, int length) {
+            byte[] payload = new byte[length];
+            buffer.get(offset + RECORD_HEADER_SIZE, payload);
+            return payload;
+        }
+
+        boolean checksumMatches(int offset, int length) {
+            CRC32 crc = new CRC32();
+            crc.update(payload(offset, length));
+            return (int) crc.getValue() == buffer.getInt(offset + Integer.BYTES);
+        }
+
+        long countFrom(int offset) {
+            long count = 0;
+            while (offset < writeOffset) {
+                offset += RECORD_HEADER_SIZE + buffer.getInt(offset);
+                count++;
+            }
+            return count;
+        }
+
+        void acknowledge(int offset) {
+            ackOffset = offset;
+            buffer.putLong(0, offset);
+        }
+
+        void force() {
+            buffer.force();
+        }
+
+        void delete() throws IOException {
+            // The mapping itself is released once the buffer is garbage collected
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.notes.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind writer for audit events.
+ *
+ * Events go into an {@link AuditBuffer} (an in-memory ring buffer or the durable on-disk spool)
+ * and a single writer thread drains it, inserting up to {@code batch-size} rows per transaction
+ * with one JDBC batch; ids come from a pooled sequence, so Hibernate can batch the inserts.
+ * A batch waits at most {@code flush-interval-ms} for more events. If a batch fails its rows are
+ * retried one by one, so one bad event does not lose the others. While the database is
+ * unreachable nothing is acknowledged and the same batch is retried with backoff.
+ * On shutdown the buffer is flushed before the datasource closes.
+ */
+@Component
+public class AuditWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditWriter.class);
+
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final AuditLogRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditBuffer buffer;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final Duration blockTimeout;
+    private final Duration shutdownTimeout;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditWriter(AuditLogRepository repository,
+                       PlatformTransactionManager transactionManager,
+                       AuditBuffer buffer,
+                       @Value("${notes.audit.batch-size:200}") int batchSize,
+                       @Value("${notes.audit.flush-interval-ms:200}") long flushIntervalMs,
+                       @Value("${notes.audit.overflow:DROP}") AuditOverflowPolicy overflowPolicy,
+                       @Value("${notes.audit.block-timeout:PT0.1S}") Duration blockTimeout,
+                       @Value("${notes.audit.shutdown-timeout:PT10S}") Duration shutdownTimeout) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Audit batch size must be positive");
+        }
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.buffer = buffer;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeout = blockTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    /**
+     * Queues the event; returns false if it was dropped because the buffer is full.
+     */
+    public boolean submit(AuditLog entry) {
+        if (!running) {
+            // Not started yet or already stopped: nobody would drain the buffer
+            write(List.of(entry));
+            return true;
+        }
+        boolean queued;
+        try {
+            queued = buffer.offer(entry, overflowPolicy == AuditOverflowPolicy.BLOCK ? blockTimeout.toNanos() : 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            dropped.incrementAndGet();
+        }
+        return queued;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Audit writer did not finish within {}; unwritten events may be lost", shutdownTimeout);
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop() {
+        long backoff = 0;
+        while (running || !buffer.isEmpty()) {
+            try {
+                List<AuditLog> batch = buffer.next(batchSize, flushIntervalMs);
+                if (!batch.isEmpty()) {
+                    write(batch);
+                    buffer.acknowledge();
+                }
+                backoff = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.error("Audit writer stopped with unwritten events: {}", e.getMessage());
+                    return;
+                }
+                backoff = backoff == 0 ? Math.max(flushIntervalMs, 1) : Math.min(backoff * 2, MAX_BACKOFF_MS);
+                log.warn("Audit writer failed, retrying in {} ms: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                log.warn("Dropped {} audit events because the buffer was full", lost);
+            }
+        }
+    }
+
+    private void write(List<AuditLog> batch) {
+        // Ids assigned by an earlier failed attempt must not be reused as if the rows existed
+        batch.forEach(entry -> entry.setId(null));
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.saveAll(batch));
+        } catch (RuntimeException e) {
+            if (isUnavailable(e)) {
+                throw e;
+            }
+            if (batch.size() == 1) {
+                log.error("Failed to write audit event {}", batch.get(0).getAction(), e);
+                return;
+            }
+            log.warn("Audit batch of {} events failed, retrying individually: {}", batch.size(), e.getMessage());
+            batch.forEach(entry -> write(List.of(entry)));
+        }
+    }
+
+    private static boolean isUnavailable(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.notes.audit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-memory ring buffer; events not yet written are lost if the process stops abruptly.
+ */
+public class MemoryAuditBuffer implements AuditBuffer {
+
+    private final BlockingQueue<AuditLog> queue;
+    // Handed out but not acknowledged; only touched by the consumer thread
+    private final List<AuditLog> pending = new ArrayList<>();
+
+    public MemoryAuditBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Audit buffer capacity must be positive");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public boolean offer(AuditLog entry, long timeoutNanos) throws InterruptedException {
+        return timeoutNanos > 0 ? queue.offer(entry, timeoutNanos, TimeUnit.NANOSECONDS) : queue.offer(entry);
+    }
+
+    @Override
+    public List<AuditLog> next(int max, long flushIntervalMs) throws InterruptedException {
+        if (!pending.isEmpty()) {
+            return List.copyOf(pending);
+        }
+        AuditLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return List.of();
+        }
+        pending.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (pending.size() < max) {
+            queue.drainTo(pending, max - pending.size());
+            long remaining = deadline - System.nanoTime();
+            if (pending.size() >= max || remaining <= 0) {
+                break;
+            }
+            AuditLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next != null) {
+                pending.add(next);
+            }
+        }
+        return List.copyOf(pending);
+    }
+
+    @Override
+    public void acknowledge() {
+        pending.clear();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return pending.isEmpty() && queue.isEmpty();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.notes.common;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small thread-safe cache with a per-entry expiry and a hard size bound.
+ *
+ * Reads are lock-free. When a put would exceed the bound, expired entries are dropped first and,
+ * if that is not enough, arbitrary entries are evicted; callers must treat a miss as normal.
+ */
+public final class BoundedExpiringCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAtMillis) {}
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final Clock clock;
+
+    public BoundedExpiringCache(int maxSize) {
+        this(maxSize, Clock.systemUTC());
+    }
+
+    public BoundedExpiringCache(int maxSize, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached value, or null when absent or expired.
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= clock.millis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    public void put(K key, V value, Duration ttl) {
+        put(key, value, clock.instant().plus(ttl));
+    }
+
+    public void put(K key, V value, Instant expiresAt) {
+        long expiresAtMillis = expiresAt.toEpochMilli();
+        if (expiresAtMillis <= clock.millis()) {
+            return;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            makeRoom();
+        }
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void makeRoom() {
+        long now = clock.millis();
+        entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+        if (entries.size() < maxSize) {
+            return;
+        }
+        // Still full: drop about a tenth of the entries rather than paying for LRU bookkeeping on reads
+        int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<K> keys = entries.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.notes.common;
+
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Detects the database behind a DataSource so vendor-specific code paths can be selected at startup.
+ */
+public final class Databases {
+
+    private Databases() {
+    }
+
+    public static DatabaseDriver driverOf(DataSource dataSource) {
+        try {
+            String productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return DatabaseDriver.fromProductName(productName);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Unable to determine database vendor", e);
+        }
+    }
+
+    public static boolean isPostgres(DataSource dataSource) {
+        return driverOf(dataSource) == DatabaseDriver.POSTGRESQL;
+    }
+}
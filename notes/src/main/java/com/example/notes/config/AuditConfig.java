@@ -0,0 +1,43 @@
+package com.example.notes.config;
+
+import com.example.notes.audit.AuditBuffer;
+import com.example.notes.audit.AuditSpool;
+import com.example.notes.audit.MemoryAuditBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Wires the buffer between audit callers and the audit writer.
+ * {@code notes.audit.buffer=spool} keeps events in memory-mapped files on local disk so they survive
+ * database outages and restarts; {@code memory} uses a bounded in-memory ring buffer.
+ */
+@Configuration
+public class AuditConfig {
+    private static final Logger log = LoggerFactory.getLogger(AuditConfig.class);
+
+    @Bean
+    public AuditBuffer auditBuffer(@Value("${notes.audit.buffer:memory}") String buffer,
+                                   @Value("${notes.audit.buffer-capacity:10000}") int capacity,
+                                   @Value("${notes.audit.spool.dir:data/audit-spool}") Path spoolDir,
+                                   @Value("${notes.audit.spool.segment-size:16MB}") DataSize segmentSize,
+                                   @Value("${notes.audit.spool.max-segments:64}") int maxSegments) throws IOException {
+        return switch (buffer) {
+            case "memory" -> {
+                log.info("Using in-memory audit buffer");
+                yield new MemoryAuditBuffer(capacity);
+            }
+            case "spool" -> {
+                log.info("Using audit spool in {}", spoolDir.toAbsolutePath());
+                yield new AuditSpool(spoolDir, Math.toIntExact(segmentSize.toBytes()), maxSegments);
+            }
+            default -> throw new IllegalStateException("Unknown notes.audit.buffer: " + buffer);
+        };
+    }
+}
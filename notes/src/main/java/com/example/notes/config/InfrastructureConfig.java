@@ -1,8 +1,6 @@
 package com.example.notes.config;
 
-import com.example.notes.security.RateLimitingFilter;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -12,9 +10,4 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @EnableScheduling
 @EnableCaching
 public class InfrastructureConfig {
-
-    @Bean
-    public RateLimitingFilter rateLimitingFilter() {
-        return new RateLimitingFilter();
-    }
 }
@@ -0,0 +1,43 @@
+package com.example.notes.config;
+
+import com.example.notes.common.Databases;
+import com.example.notes.note.InMemoryNoteSearchEngine;
+import com.example.notes.note.NoteRepository;
+import com.example.notes.note.NoteSearchEngine;
+import com.example.notes.note.PostgresNoteSearchEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wires the note search engine used by NoteService for {@code GET /api/notes?q=}.
+ * {@code notes.search.engine=auto} picks PostgreSQL full-text search when running on PostgreSQL
+ * and the in-memory index otherwise.
+ */
+@Configuration
+public class NoteSearchConfig {
+    private static final Logger log = LoggerFactory.getLogger(NoteSearchConfig.class);
+
+    @Bean
+    public NoteSearchEngine noteSearchEngine(NoteRepository noteRepository,
+                                             DataSource dataSource,
+                                             @Value("${notes.search.engine:auto}") String engine,
+                                             @Value("${notes.search.memory.max-owners:10000}") int maxOwners,
+                                             @Value("${notes.search.memory.idle-ttl:PT30M}") Duration idleTtl) {
+        boolean postgres = switch (engine) {
+            case "auto" -> Databases.isPostgres(dataSource);
+            case "postgres" -> true;
+            case "memory" -> false;
+            default -> throw new IllegalStateException("Unknown notes.search.engine: " + engine);
+        };
+        log.info("Using {} note search engine", postgres ? "PostgreSQL full-text" : "in-memory");
+        return postgres
+                ? new PostgresNoteSearchEngine(noteRepository)
+                : new InMemoryNoteSearchEngine(noteRepository, maxOwners, idleTtl);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.notes.config;
+
+import com.example.notes.security.InMemoryRateLimitStore;
+import com.example.notes.security.JdbcRateLimitStore;
+import com.example.notes.security.RateLimitProperties;
+import com.example.notes.security.RateLimitStore;
+import com.example.notes.security.RateLimitingFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires request rate limiting. {@code security.rate-limit.store=memory} limits each instance on its own;
+ * {@code jdbc} shares counters between instances through the database.
+ * The filters run inside the security filter chain only, so their servlet registrations are disabled.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+    private static final Logger log = LoggerFactory.getLogger(RateLimitConfig.class);
+
+    @Bean
+    public RateLimitStore rateLimitStore(RateLimitProperties properties, DataSource dataSource) {
+        boolean jdbc = switch (properties.store()) {
+            case "jdbc" -> true;
+            case "memory" -> false;
+            default -> throw new IllegalStateException("Unknown security.rate-limit.store: " + properties.store());
+        };
+        log.info("Using {} rate limit store", jdbc ? "JDBC" : "in-memory");
+        return jdbc
+                ? new JdbcRateLimitStore(dataSource, properties.maxKeys())
+                : new InMemoryRateLimitStore(properties.maxKeys());
+    }
+
+    @Bean
+    public RateLimitingFilter ipRateLimitingFilter(RateLimitStore rateLimitStore,
+                                                   RateLimitProperties properties,
+                                                   ObjectMapper objectMapper) {
+        return new RateLimitingFilter(RateLimitingFilter.Stage.IP, rateLimitStore, properties, objectMapper);
+    }
+
+    @Bean
+    public RateLimitingFilter userRateLimitingFilter(RateLimitStore rateLimitStore,
+                                                     RateLimitProperties properties,
+                                                     ObjectMapper objectMapper) {
+        return new RateLimitingFilter(RateLimitingFilter.Stage.USER, rateLimitStore, properties, objectMapper);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitingFilter> ipRateLimitingFilterRegistration(
+            @Qualifier("ipRateLimitingFilter") RateLimitingFilter filter) {
+        return disabledRegistration(filter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitingFilter> userRateLimitingFilterRegistration(
+            @Qualifier("userRateLimitingFilter") RateLimitingFilter filter) {
+        return disabledRegistration(filter);
+    }
+
+    private static FilterRegistrationBean<RateLimitingFilter> disabledRegistration(RateLimitingFilter filter) {
+        FilterRegistrationBean<RateLimitingFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
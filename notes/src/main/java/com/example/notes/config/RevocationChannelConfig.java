@@ -0,0 +1,36 @@
+package com.example.notes.config;
+
+import com.example.notes.common.Databases;
+import com.example.notes.security.InProcessRevocationChannel;
+import com.example.notes.security.PostgresRevocationChannel;
+import com.example.notes.security.RevocationChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires the channel that propagates token revocations between instances.
+ * {@code security.revocation.channel=auto} uses PostgreSQL LISTEN/NOTIFY when running on PostgreSQL
+ * and an in-process channel (single instance only) otherwise.
+ */
+@Configuration
+public class RevocationChannelConfig {
+    private static final Logger log = LoggerFactory.getLogger(RevocationChannelConfig.class);
+
+    @Bean
+    public RevocationChannel revocationChannel(DataSource dataSource,
+                                               @Value("${security.revocation.channel:auto}") String channel) {
+        boolean postgres = switch (channel) {
+            case "auto" -> Databases.isPostgres(dataSource);
+            case "postgres" -> true;
+            case "in-process" -> false;
+            default -> throw new IllegalStateException("Unknown security.revocation.channel: " + channel);
+        };
+        log.info("Using {} token revocation channel", postgres ? "PostgreSQL LISTEN/NOTIFY" : "in-process");
+        return postgres ? new PostgresRevocationChannel(dataSource) : new InProcessRevocationChannel();
+    }
+}
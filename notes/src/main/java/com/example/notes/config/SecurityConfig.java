@@ -1,4 +1,5 @@
 package com.example.notes.config;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -38,7 +39,8 @@ public class SecurityConfig {
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http,
                                            JwtAuthFilter jwtAuthFilter,
-                                           RateLimitingFilter rateLimitingFilter,
+                                           @Qualifier("ipRateLimitingFilter") RateLimitingFilter ipRateLimitingFilter,
+                                           @Qualifier("userRateLimitingFilter") RateLimitingFilter userRateLimitingFilter,
                                            RestAuthenticationEntryPoint authenticationEntryPoint,
                                            RestAccessDeniedHandler accessDeniedHandler) throws Exception {
         http
@@ -59,7 +61,9 @@ public class SecurityConfig {
                 );
 
         http.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
-        http.addFilterAfter(rateLimitingFilter, JwtAuthFilter.class);
+        // Shed floods by IP before paying for token verification, then apply per-user limits
+        http.addFilterBefore(ipRateLimitingFilter, JwtAuthFilter.class);
+        http.addFilterAfter(userRateLimitingFilter, JwtAuthFilter.class);
 
         return http.build();
     }
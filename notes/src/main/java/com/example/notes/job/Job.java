@@ -0,0 +1,89 @@
+package com.example.notes.job;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a background job owned by a user. Written by the worker thread, read by status requests.
+ */
+public class Job {
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long ownerId;
+    private final String type;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong processed = new AtomicLong();
+
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private volatile Long total;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public Job(Long ownerId, String type) {
+        this.ownerId = ownerId;
+        this.type = type;
+    }
+
+    public void start(Long total) {
+        this.total = total;
+        this.startedAt = Instant.now();
+        this.status = JobStatus.RUNNING;
+    }
+
+    public void advance(long count) {
+        processed.addAndGet(count);
+    }
+
+    public void succeed() {
+        this.finishedAt = Instant.now();
+        this.status = JobStatus.SUCCEEDED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.status = JobStatus.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
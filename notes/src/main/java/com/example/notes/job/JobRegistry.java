@@ -0,0 +1,97 @@
+package com.example.notes.job;
+
+import com.example.notes.common.ConflictException;
+import com.example.notes.common.NotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Submits background jobs and keeps their progress in memory until the retention period
+ * after they finish. At most one unfinished job per owner and type exists at a time.
+ *
+ * Jobs run on a small dedicated pool rather than the shared async executor, so a burst of
+ * heavy jobs cannot starve other async work or flood the database.
+ */
+@Component
+public class JobRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(JobRegistry.class);
+
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration retention;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public JobRegistry(@Value("${notes.jobs.threads:2}") int threads,
+                       @Value("${notes.jobs.queue-capacity:100}") int queueCapacity,
+                       @Value("${notes.jobs.retention:PT1H}") Duration retention) {
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(threads);
+        this.executor.setMaxPoolSize(threads);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("job-");
+        this.executor.initialize();
+        this.retention = retention;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Starts {@code work} for the owner, or returns the owner's unfinished job of the same type.
+     */
+    public synchronized Job submit(Long ownerId, String type, Consumer<Job> work) {
+        for (Job job : jobs.values()) {
+            if (job.getOwnerId().equals(ownerId) && job.getType().equals(type) && !job.getStatus().isFinished()) {
+                return job;
+            }
+        }
+        Job job = new Job(ownerId, type);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, work));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            throw new ConflictException("Too many background jobs, try again later");
+        }
+        return job;
+    }
+
+    public Job getOwnedOrThrow(Long ownerId, String jobId) {
+        Job job = jobs.get(jobId);
+        // Prevents leaking existence
+        if (job == null || !job.getOwnerId().equals(ownerId)) {
+            throw new NotFoundException("Job not found");
+        }
+        return job;
+    }
+
+    @Scheduled(fixedDelayString = "${notes.jobs.cleanup-interval-ms:600000}")
+    public void evictFinished() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.getStatus().isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static void run(Job job, Consumer<Job> work) {
+        try {
+            work.accept(job);
+            job.succeed();
+        } catch (RuntimeException e) {
+            log.error("Job {} ({}) failed", job.getId(), job.getType(), e);
+            job.fail("Job failed after processing " + job.getProcessed() + " items");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.notes.job;
+
+/**
+ * Lifecycle of a background job.
+ */
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
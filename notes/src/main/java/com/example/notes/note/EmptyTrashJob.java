@@ -0,0 +1,74 @@
+package com.example.notes.note;
+
+import com.example.notes.audit.AuditService;
+import com.example.notes.job.Job;
+import com.example.notes.job.JobRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Permanently deletes all of an owner's trashed notes in the background.
+ *
+ * Work is split into chunks, each in its own short transaction, so the purge never holds
+ * row locks on {@code notes} for long and concurrent edits interleave with it.
+ */
+@Component
+public class EmptyTrashJob {
+
+    public static final String TYPE = "EMPTY_TRASH";
+
+    private final JobRegistry jobRegistry;
+    private final NoteRepository noteRepository;
+    private final NoteBulkDeleter bulkDeleter;
+    private final NoteCounterService counterService;
+    private final AuditService auditService;
+    private final TransactionTemplate transaction;
+    private final int chunkSize;
+
+    public EmptyTrashJob(JobRegistry jobRegistry,
+                         NoteRepository noteRepository,
+                         NoteBulkDeleter bulkDeleter,
+                         NoteCounterService counterService,
+                         AuditService auditService,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${notes.jobs.empty-trash.chunk-size:500}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Empty trash chunk size must be positive");
+        }
+        this.jobRegistry = jobRegistry;
+        this.noteRepository = noteRepository;
+        this.bulkDeleter = bulkDeleter;
+        this.counterService = counterService;
+        this.auditService = auditService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Starts emptying the owner's trash, or returns the job already doing so.
+     */
+    public Job submit(Long ownerId) {
+        return jobRegistry.submit(ownerId, TYPE, job -> run(ownerId, job));
+    }
+
+    private void run(Long ownerId, Job job) {
+        job.start(counterService.getCounts(ownerId).trashed());
+        while (true) {
+            Integer deleted = transaction.execute(status -> {
+                List<Long> ids = noteRepository.findTrashedIds(ownerId, Limit.of(chunkSize));
+                return ids.isEmpty() ? null : bulkDeleter.deleteTrashed(ownerId, ids).deleted();
+            });
+            if (deleted == null) {
+                break;
+            }
+            job.advance(deleted);
+        }
+        auditService.record(ownerId, "NOTE_TRASH_EMPTIED", "NOTE", null,
+                "Permanently deleted " + job.getProcessed() + " trashed notes");
+    }
+}
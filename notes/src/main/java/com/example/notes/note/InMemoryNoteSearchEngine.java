@@ -0,0 +1,277 @@
+package com.example.notes.note;
+
+import com.example.notes.common.Transactions;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index with per-owner posting lists and BM25 ranking.
+ *
+ * Owners are indexed lazily from the database on their first search; after that the index
+ * is kept current by NoteService. Owners not searched for the idle TTL are dropped, and at most
+ * {@code maxOwners} are held; dropped owners are reloaded on their next search. Every query term is matched as a prefix, all terms must match,
+ * and title hits weigh more than content hits. A trigram index per field narrows substring searches.
+ */
+public class InMemoryNoteSearchEngine implements NoteSearchEngine {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double TITLE_WEIGHT = 2.0;
+    private static final double CONTENT_WEIGHT = 1.0;
+
+    private final NoteRepository noteRepository;
+    private final int maxOwners;
+    private final Duration idleTtl;
+    private final Clock clock;
+    private final ConcurrentHashMap<Long, OwnerIndex> owners = new ConcurrentHashMap<>();
+
+    public InMemoryNoteSearchEngine(NoteRepository noteRepository, int maxOwners, Duration idleTtl) {
+        this(noteRepository, maxOwners, idleTtl, Clock.systemUTC());
+    }
+
+    InMemoryNoteSearchEngine(NoteRepository noteRepository, int maxOwners, Duration idleTtl, Clock clock) {
+        if (maxOwners <= 0) {
+            throw new IllegalArgumentException("Search index max owners must be positive");
+        }
+        this.noteRepository = noteRepository;
+        this.maxOwners = maxOwners;
+        this.idleTtl = idleTtl;
+        this.clock = clock;
+    }
+
+    @Override
+    public List<Long> search(Long ownerId, String query, boolean searchInContent, int limit) {
+        List<String> terms = NoteTokenizer.tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        OwnerIndex index = ownerIndex(ownerId);
+        index.lock.readLock().lock();
+        try {
+            return index.search(terms, searchInContent, limit);
+        } finally {
+            index.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Set<Long>> substringCandidates(Long ownerId, String fragment, boolean searchInContent) {
+        OwnerIndex index = ownerIndex(ownerId);
+        index.lock.readLock().lock();
+        try {
+            Set<Long> candidates = new HashSet<>();
+            index.titleTrigrams.candidates(fragment, candidates);
+            if (searchInContent) {
+                index.contentTrigrams.candidates(fragment, candidates);
+            }
+            return Optional.of(candidates);
+        } finally {
+            index.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(NoteSearchDocument document) {
+        Transactions.afterCommit(() -> {
+            OwnerIndex index = owners.get(document.ownerId());
+            // Unloaded owners pick the note up from the database when first searched
+            if (index == null) {
+                return;
+            }
+            index.lock.writeLock().lock();
+            try {
+                index.put(document);
+            } finally {
+                index.lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void remove(Long ownerId, Long noteId) {
+        Transactions.afterCommit(() -> {
+            OwnerIndex index = owners.get(ownerId);
+            if (index == null) {
+                return;
+            }
+            index.lock.writeLock().lock();
+            try {
+                index.remove(noteId);
+            } finally {
+                index.lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private OwnerIndex ownerIndex(Long ownerId) {
+        long now = clock.millis();
+        OwnerIndex existing = owners.get(ownerId);
+        if (existing != null) {
+            if (!existing.idle(now, idleTtl)) {
+                existing.lastAccessMillis = now;
+                return existing;
+            }
+            owners.remove(ownerId, existing);
+        }
+        OwnerIndex created = new OwnerIndex(now);
+        // Publish the index while holding the write lock so concurrent updates wait for the initial load
+        created.lock.writeLock().lock();
+        try {
+            existing = owners.putIfAbsent(ownerId, created);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                noteRepository.findSearchDocumentsByOwnerId(ownerId).forEach(created::put);
+            } catch (RuntimeException e) {
+                owners.remove(ownerId, created);
+                throw e;
+            }
+            makeRoom(ownerId);
+            return created;
+        } finally {
+            created.lock.writeLock().unlock();
+        }
+    }
+
+    private void makeRoom(Long keep) {
+        if (owners.size() <= maxOwners) {
+            return;
+        }
+        long now = clock.millis();
+        owners.values().removeIf(index -> index.idle(now, idleTtl));
+        // Still full: drop about a tenth of the owners; they are reloaded on their next search
+        int excess = owners.size() - maxOwners + Math.max(1, maxOwners / 10);
+        Iterator<Long> keys = owners.keySet().iterator();
+        while (excess > 0 && keys.hasNext()) {
+            if (!keys.next().equals(keep)) {
+                keys.remove();
+                excess--;
+            }
+        }
+    }
+
+    private static final class OwnerIndex {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        volatile long lastAccessMillis;
+        final FieldIndex title = new FieldIndex();
+        final FieldIndex content = new FieldIndex();
+        final TrigramIndex titleTrigrams = new TrigramIndex();
+        final TrigramIndex contentTrigrams = new TrigramIndex();
+
+        OwnerIndex(long lastAccessMillis) {
+            this.lastAccessMillis = lastAccessMillis;
+        }
+
+        boolean idle(long now, Duration idleTtl) {
+            return lastAccessMillis + idleTtl.toMillis() <= now;
+        }
+
+        void put(NoteSearchDocument document) {
+            title.put(document.id(), NoteTokenizer.tokenize(document.title()));
+            content.put(document.id(), NoteTokenizer.tokenize(document.content()));
+            titleTrigrams.put(document.id(), document.title());
+            contentTrigrams.put(document.id(), document.content());
+        }
+
+        void remove(Long noteId) {
+            title.remove(noteId);
+            content.remove(noteId);
+            titleTrigrams.remove(noteId);
+            contentTrigrams.remove(noteId);
+        }
+
+        List<Long> search(List<String> terms, boolean searchInContent, int limit) {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = new HashMap<>();
+                title.score(term, TITLE_WEIGHT, termScores);
+                if (searchInContent) {
+                    content.score(term, CONTENT_WEIGHT, termScores);
+                }
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // Every term must match: keep the intersection and accumulate scores
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+            return ranked.stream()
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+    }
+
+    private static final class FieldIndex {
+        // term -> (note id -> term frequency); sorted so a query term can be expanded as a prefix
+        final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+        final Map<Long, Integer> lengths = new HashMap<>();
+        long totalLength;
+
+        void put(Long noteId, List<String> tokens) {
+            remove(noteId);
+            if (tokens.isEmpty()) {
+                return;
+            }
+            Map<String, Integer> frequencies = new HashMap<>();
+            tokens.forEach(token -> frequencies.merge(token, 1, Integer::sum));
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(noteId, tf));
+            documents.put(noteId, frequencies);
+            lengths.put(noteId, tokens.size());
+            totalLength += tokens.size();
+        }
+
+        void remove(Long noteId) {
+            Map<String, Integer> frequencies = documents.remove(noteId);
+            if (frequencies == null) {
+                return;
+            }
+            frequencies.keySet().forEach(term -> {
+                Map<Long, Integer> posting = postings.get(term);
+                posting.remove(noteId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            });
+            totalLength -= lengths.remove(noteId);
+        }
+
+        void score(String prefix, double weight, Map<Long, Double> into) {
+            int docCount = documents.size();
+            if (docCount == 0) {
+                return;
+            }
+            double avgLength = (double) totalLength / docCount;
+            for (var entry : postings.subMap(prefix, prefix + Character.MAX_VALUE).entrySet()) {
+                Map<Long, Integer> posting = entry.getValue();
+                double idf = Math.log(1 + (docCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((noteId, tf) -> {
+                    double norm = tf + K1 * (1 - B + B * lengths.get(noteId) / avgLength);
+                    into.merge(noteId, weight * idf * tf * (K1 + 1) / norm, Double::sum);
+                });
+            }
+        }
+    }
+}
@@ -46,6 +46,9 @@ public class Note {
     private Instant createdAt;
     private Instant updatedAt;
 
+    // When the note entered the trash; drives the retention purge
+    private Instant trashedAt;
+
     /**
      * Tags many-to-many. Using join table for simplicity.
      */
@@ -64,6 +67,11 @@ public class Note {
         if (trashed) {
             pinned = false;
             archived = false;
+            if (trashedAt == null) {
+                trashedAt = Instant.now();
+            }
+        } else {
+            trashedAt = null;
         }
         if (archived) {
             pinned = false;
@@ -5,6 +5,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.List;
 
 /**
  * Handles note CRUD and archive/trash operations.
@@ -14,9 +15,14 @@ import java.time.Instant;
 public class NoteActionService {
 
     private final NoteRepository noteRepository;
+    private final NoteCounterService counterService;
+    private final NoteBulkDeleter bulkDeleter;
 
-    public NoteActionService(NoteRepository noteRepository) {
+    public NoteActionService(NoteRepository noteRepository, NoteCounterService counterService,
+                             NoteBulkDeleter bulkDeleter) {
         this.noteRepository = noteRepository;
+        this.counterService = counterService;
+        this.bulkDeleter = bulkDeleter;
     }
 
     private Note loadOwned(Long ownerId, Long noteId) {
@@ -30,40 +36,53 @@ public class NoteActionService {
 
     public Note moveToArchive(Long ownerId, Long noteId) {
         Note note = loadOwned(ownerId, noteId);
+        var before = NoteCounterState.of(note);
         if (note.isTrashed()) {
             throw new IllegalArgumentException("Cannot archive a trashed note");
         }
         note.setArchived(true);
         note.setPinned(false);
         note.setUpdatedAt(Instant.now());
-        return noteRepository.save(note);
+        Note saved = noteRepository.save(note);
+        counterService.apply(ownerId, new NoteCounterDelta().transition(before, NoteCounterState.of(saved)));
+        return saved;
     }
 
     public Note restoreFromArchive(Long ownerId, Long noteId) {
         Note note = loadOwned(ownerId, noteId);
+        var before = NoteCounterState.of(note);
         note.setArchived(false);
         note.setUpdatedAt(Instant.now());
-        return noteRepository.save(note);
+        Note saved = noteRepository.save(note);
+        counterService.apply(ownerId, new NoteCounterDelta().transition(before, NoteCounterState.of(saved)));
+        return saved;
     }
 
     public Note moveToTrash(Long ownerId, Long noteId) {
         Note note = loadOwned(ownerId, noteId);
+        var before = NoteCounterState.of(note);
         note.setTrashed(true);
         note.setArchived(false);
         note.setPinned(false);
         note.setUpdatedAt(Instant.now());
-        return noteRepository.save(note);
+        Note saved = noteRepository.save(note);
+        counterService.apply(ownerId, new NoteCounterDelta().transition(before, NoteCounterState.of(saved)));
+        return saved;
     }
 
     public Note restoreFromTrash(Long ownerId, Long noteId) {
         Note note = loadOwned(ownerId, noteId);
+        var before = NoteCounterState.of(note);
         note.setTrashed(false);
         note.setUpdatedAt(Instant.now());
-        return noteRepository.save(note);
+        Note saved = noteRepository.save(note);
+        counterService.apply(ownerId, new NoteCounterDelta().transition(before, NoteCounterState.of(saved)));
+        return saved;
     }
 
     public void deletePermanently(Long ownerId, Long noteId) {
-        Note note = loadOwned(ownerId, noteId);
-        noteRepository.delete(note);
+        if (bulkDeleter.delete(ownerId, List.of(noteId)).deleted() == 0) {
+            throw new NotFoundException("Note not found");
+        }
     }
 }
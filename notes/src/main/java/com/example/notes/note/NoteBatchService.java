@@ -1,80 +1,170 @@
 package com.example.notes.note;
 
 import com.example.notes.common.NotFoundException;
+import com.example.notes.tag.Tag;
+import com.example.notes.tag.TagService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
- * Batch operations for notes (archive, trash, restore, delete).
+ * Batch operations for notes (archive, trash, restore, delete, tag).
+ *
+ * State transitions are set-based: one locking ownership check, one bulk UPDATE and one
+ * fetch of the results with their tags, regardless of how many ids are in the batch.
  */
 @Service
 @Transactional
 public class NoteBatchService {
 
     private final NoteRepository noteRepository;
+    private final NoteCounterService counterService;
+    private final NoteBulkDeleter bulkDeleter;
+    private final TagService tagService;
+    private final NoteTagLinker tagLinker;
 
-    public NoteBatchService(NoteRepository noteRepository) {
+    public NoteBatchService(NoteRepository noteRepository, NoteCounterService counterService,
+                            NoteBulkDeleter bulkDeleter, TagService tagService, NoteTagLinker tagLinker) {
         this.noteRepository = noteRepository;
-    }
-
-    private Note loadOwned(Long ownerId, Long noteId) {
-        var note = noteRepository.findById(noteId)
-                .orElseThrow(() -> new NotFoundException("Note not found"));
-        if (!note.getOwner().getId().equals(ownerId)) {
-            throw new NotFoundException("Note not found");
-        }
-        return note;
+        this.counterService = counterService;
+        this.bulkDeleter = bulkDeleter;
+        this.tagService = tagService;
+        this.tagLinker = tagLinker;
     }
 
     public List<Note> archiveNotes(Long ownerId, List<Long> ids) {
-        return ids.stream().map(id -> {
-            Note note = loadOwned(ownerId, id);
-            if (note.isTrashed()) {
-                throw new IllegalArgumentException("Cannot archive a trashed note");
-            }
-            note.setArchived(true);
-            note.setPinned(false);
-            note.setUpdatedAt(Instant.now());
-            return noteRepository.save(note);
-        }).toList();
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        List<NoteStateRow> notes = lockAllOwned(ownerId, unique);
+        if (notes.stream().anyMatch(NoteStateRow::trashed)) {
+            throw new IllegalArgumentException("Cannot archive a trashed note");
+        }
+        return transition(ownerId, ids, unique, notes,
+                note -> EnumSet.of(NoteCounterState.ARCHIVED),
+                noteRepository::archiveAll);
     }
 
     public List<Note> restoreFromArchive(Long ownerId, List<Long> ids) {
-        return ids.stream().map(id -> {
-            Note note = loadOwned(ownerId, id);
-            note.setArchived(false);
-            note.setUpdatedAt(Instant.now());
-            return noteRepository.save(note);
-        }).toList();
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        return transition(ownerId, ids, unique, lockAllOwned(ownerId, unique),
+                note -> NoteCounterState.of(note.pinned(), false, note.trashed()),
+                noteRepository::restoreAllFromArchive);
     }
 
     public List<Note> trashNotes(Long ownerId, List<Long> ids) {
-        return ids.stream().map(id -> {
-            Note note = loadOwned(ownerId, id);
-            note.setTrashed(true);
-            note.setArchived(false);
-            note.setPinned(false);
-            note.setUpdatedAt(Instant.now());
-            return noteRepository.save(note);
-        }).toList();
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        return transition(ownerId, ids, unique, lockAllOwned(ownerId, unique),
+                note -> EnumSet.of(NoteCounterState.TRASHED),
+                noteRepository::trashAll);
     }
 
     public List<Note> restoreFromTrash(Long ownerId, List<Long> ids) {
-        return ids.stream().map(id -> {
-            Note note = loadOwned(ownerId, id);
-            note.setTrashed(false);
-            note.setUpdatedAt(Instant.now());
-            return noteRepository.save(note);
-        }).toList();
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        return transition(ownerId, ids, unique, lockAllOwned(ownerId, unique),
+                note -> NoteCounterState.of(note.pinned(), note.archived(), false),
+                noteRepository::restoreAllFromTrash);
+    }
+
+    /**
+     * Deletes the owner's notes among {@code ids}; unknown or foreign ids are reported, not rejected.
+     */
+    public NoteDeleteResult deletePermanently(Long ownerId, List<Long> ids) {
+        return bulkDeleter.delete(ownerId, ids);
+    }
+
+    /**
+     * Adds the tags to every note with one INSERT ... SELECT; links that already exist are kept.
+     * All notes and tags must be owned by the caller and no note may be trashed.
+     */
+    public NoteTagBatchResult addTags(Long ownerId, List<Long> noteIds, List<Long> tagIds) {
+        Set<Long> notes = lockOwnedStates(ownerId, noteIds, true);
+        List<Long> tags = ownedTagIds(ownerId, tagIds);
+        int changed = tagLinker.link(ownerId, notes, tags);
+        if (changed > 0) {
+            tagService.notesTagged(ownerId, notes, tags);
+        }
+        noteRepository.touchAll(ownerId, notes, Instant.now());
+        return new NoteTagBatchResult(notes.size(), changed);
+    }
+
+    /**
+     * Removes the tags from every note with one DELETE; tags a note does not carry are ignored.
+     */
+    public NoteTagBatchResult removeTags(Long ownerId, List<Long> noteIds, List<Long> tagIds) {
+        Set<Long> notes = lockOwnedStates(ownerId, noteIds, false);
+        List<Long> tags = ownedTagIds(ownerId, tagIds);
+        int changed = tagLinker.unlink(ownerId, notes, tags);
+        if (changed > 0) {
+            tagService.notesUntagged(ownerId, notes, tags);
+        }
+        noteRepository.touchAll(ownerId, notes, Instant.now());
+        return new NoteTagBatchResult(notes.size(), changed);
+    }
+
+    /**
+     * Ownership check that locks only the state columns, since tagging never hydrates the notes.
+     */
+    private Set<Long> lockOwnedStates(Long ownerId, List<Long> ids, boolean rejectTrashed) {
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        List<NoteStateRow> rows = noteRepository.findOwnedStatesForUpdate(ownerId, unique);
+        if (rows.size() != unique.size()) {
+            throw new NotFoundException("Note not found");
+        }
+        if (rejectTrashed && rows.stream().anyMatch(NoteStateRow::trashed)) {
+            throw new IllegalArgumentException("Cannot tag trashed note");
+        }
+        return unique;
+    }
+
+    private List<Long> ownedTagIds(Long ownerId, List<Long> tagIds) {
+        return tagService.getOwnedTagsOrThrow(ownerId, tagIds).stream().map(Tag::getId).toList();
+    }
+
+    /**
+     * Locks the owner's notes with the given ids, reading only their state; any id that is missing
+     * or owned by someone else fails the whole batch, as the per-id lookup did.
+     */
+    private List<NoteStateRow> lockAllOwned(Long ownerId, Set<Long> ids) {
+        List<NoteStateRow> notes = noteRepository.findOwnedStatesForUpdate(ownerId, ids);
+        if (notes.size() != ids.size()) {
+            throw new NotFoundException("Note not found");
+        }
+        return notes;
+    }
+
+    /**
+     * Applies a bulk update to already locked notes, maintains counters from their prior state
+     * and returns the updated notes with tags, one per requested id in request order. Entities
+     * are loaded only here, after the update, for the response.
+     */
+    private List<Note> transition(Long ownerId, List<Long> ids, Set<Long> unique, List<NoteStateRow> notes,
+                                  Function<NoteStateRow, Set<NoteCounterState>> after, BulkUpdate update) {
+        var delta = new NoteCounterDelta();
+        notes.forEach(note -> delta.transition(
+                NoteCounterState.of(note.pinned(), note.archived(), note.trashed()), after.apply(note)));
+
+        update.apply(ownerId, unique, Instant.now());
+        counterService.apply(ownerId, delta);
+
+        Map<Long, Note> byId = noteRepository.findByIdIn(unique).stream()
+                .collect(Collectors.toMap(Note::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
-    public void deletePermanently(Long ownerId, List<Long> ids) {
-        ids.forEach(id -> {
-            Note note = loadOwned(ownerId, id);
-            noteRepository.delete(note);
-        });
+    @FunctionalInterface
+    private interface BulkUpdate {
+        int apply(Long ownerId, Collection<Long> ids, Instant now);
     }
 }
@@ -0,0 +1,95 @@
+package com.example.notes.note;
+
+import com.example.notes.tag.TagService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Permanently deletes notes with plain DELETE statements instead of loading and removing entities.
+ *
+ * Ids are processed in chunks so the IN lists stay bounded; each chunk reads the state flags of
+ * the owner's matching rows (for counters), deletes their tag links and then the notes themselves.
+ */
+@Component
+@Transactional
+public class NoteBulkDeleter {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final NoteRepository noteRepository;
+    private final NoteSearchEngine searchEngine;
+    private final NoteCounterService counterService;
+    private final TagService tagService;
+
+    public NoteBulkDeleter(NoteRepository noteRepository, NoteSearchEngine searchEngine,
+                           NoteCounterService counterService, TagService tagService) {
+        this.noteRepository = noteRepository;
+        this.searchEngine = searchEngine;
+        this.counterService = counterService;
+        this.tagService = tagService;
+    }
+
+    public NoteDeleteResult delete(Long ownerId, Collection<Long> ids) {
+        return delete(ownerId, ids, row -> true);
+    }
+
+    /**
+     * Like {@link #delete(Long, Collection)} but skips notes that are no longer trashed by the time
+     * their rows are locked, so a concurrent restore is never undone by a purge.
+     */
+    public NoteDeleteResult deleteTrashed(Long ownerId, Collection<Long> ids) {
+        return delete(ownerId, ids, NoteStateRow::trashed);
+    }
+
+    /**
+     * Like {@link #deleteTrashed(Long, Collection)} but also skips notes whose {@code trashedAt} is no
+     * longer before {@code cutoff} under the lock, e.g. restored and trashed again since they were listed.
+     */
+    public NoteDeleteResult deleteTrashedBefore(Long ownerId, Collection<Long> ids, Instant cutoff) {
+        return delete(ownerId, ids, row -> row.trashed() && row.trashedAt() != null && row.trashedAt().isBefore(cutoff));
+    }
+
+    private NoteDeleteResult delete(Long ownerId, Collection<Long> ids, Predicate<NoteStateRow> deletable) {
+        List<Long> unique = new ArrayList<>(new LinkedHashSet<>(ids));
+        Set<Long> found = new HashSet<>();
+        var delta = new NoteCounterDelta();
+        int deleted = 0;
+
+        for (int from = 0; from < unique.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = unique.subList(from, Math.min(from + CHUNK_SIZE, unique.size()));
+            List<NoteStateRow> rows = noteRepository.findOwnedStatesForUpdate(ownerId, chunk);
+            List<Long> owned = new ArrayList<>(rows.size());
+            for (NoteStateRow row : rows) {
+                if (!deletable.test(row)) {
+                    continue;
+                }
+                owned.add(row.id());
+                delta.removed(NoteCounterState.of(row.pinned(), row.archived(), row.trashed()));
+            }
+            if (owned.isEmpty()) {
+                continue;
+            }
+            noteRepository.deleteTagLinks(owned);
+            deleted += noteRepository.deleteOwned(ownerId, owned);
+            found.addAll(owned);
+        }
+
+        counterService.apply(ownerId, delta);
+        if (!found.isEmpty()) {
+            // Tag links went with the notes
+            tagService.notesDeleted(ownerId, found);
+        }
+        found.forEach(id -> searchEngine.remove(ownerId, id));
+        List<Long> notFound = unique.stream().filter(id -> !found.contains(id)).toList();
+        return new NoteDeleteResult(deleted, notFound);
+    }
+}
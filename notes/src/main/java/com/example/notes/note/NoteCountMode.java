@@ -0,0 +1,28 @@
+package com.example.notes.note;
+
+import java.util.Locale;
+
+/**
+ * How much effort a note listing spends on its total count.
+ * EXACT runs a full count query, ESTIMATE bounds the counting work, NONE skips it and only reports whether a next page exists.
+ */
+public enum NoteCountMode {
+    EXACT,
+    ESTIMATE,
+    NONE;
+
+    public static NoteCountMode fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Count mode must be one of: exact, estimate, none");
+        }
+    }
+
+    public String param() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
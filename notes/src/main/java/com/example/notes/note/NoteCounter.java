@@ -0,0 +1,45 @@
+package com.example.notes.note;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Number of notes an owner has in one state, maintained incrementally on every state transition.
+ */
+@Entity
+@Table(name = "note_counters")
+@IdClass(NoteCounter.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NoteCounter {
+
+    @Id
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private NoteCounterState state;
+
+    @Column(name = "note_count", nullable = false)
+    private long count;
+
+    /**
+     * Composite key (owner_id, state).
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long ownerId;
+        private NoteCounterState state;
+    }
+}
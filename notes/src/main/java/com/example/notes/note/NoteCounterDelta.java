@@ -0,0 +1,37 @@
+package com.example.notes.note;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Accumulates counter changes for one owner so a whole operation is applied with one update per state.
+ */
+public final class NoteCounterDelta {
+
+    private final EnumMap<NoteCounterState, Long> deltas = new EnumMap<>(NoteCounterState.class);
+
+    public NoteCounterDelta added(Set<NoteCounterState> states) {
+        states.forEach(state -> deltas.merge(state, 1L, Long::sum));
+        return this;
+    }
+
+    public NoteCounterDelta removed(Set<NoteCounterState> states) {
+        states.forEach(state -> deltas.merge(state, -1L, Long::sum));
+        return this;
+    }
+
+    public NoteCounterDelta transition(Set<NoteCounterState> before, Set<NoteCounterState> after) {
+        return removed(before).added(after);
+    }
+
+    Map<NoteCounterState, Long> nonZero() {
+        var result = new EnumMap<NoteCounterState, Long>(NoteCounterState.class);
+        deltas.forEach((state, delta) -> {
+            if (delta != 0) {
+                result.put(state, delta);
+            }
+        });
+        return result;
+    }
+}
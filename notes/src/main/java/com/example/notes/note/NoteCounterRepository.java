@@ -0,0 +1,19 @@
+package com.example.notes.note;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+/**
+ * Repository for per-owner note counters.
+ */
+public interface NoteCounterRepository extends JpaRepository<NoteCounter, NoteCounter.Key> {
+
+    List<NoteCounter> findByOwnerId(Long ownerId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update NoteCounter c set c.count = c.count + :delta where c.ownerId = :ownerId and c.state = :state")
+    int increment(Long ownerId, NoteCounterState state, long delta);
+}
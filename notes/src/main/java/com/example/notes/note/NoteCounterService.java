@@ -0,0 +1,93 @@
+package com.example.notes.note;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-owner note counters, kept in step with note state transitions inside the caller's transaction.
+ *
+ * Counter rows are created lazily: the first time an owner's counters are needed they are rebuilt
+ * from the committed notes in a separate transaction, after which only deltas are applied.
+ */
+@Service
+@Transactional
+public class NoteCounterService {
+
+    private final NoteCounterRepository counterRepository;
+    private final NoteRepository noteRepository;
+    private final TransactionTemplate initTransaction;
+
+    public NoteCounterService(NoteCounterRepository counterRepository,
+                              NoteRepository noteRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.counterRepository = counterRepository;
+        this.noteRepository = noteRepository;
+        this.initTransaction = new TransactionTemplate(transactionManager);
+        this.initTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Applies the accumulated changes with one atomic update per affected state.
+     */
+    public void apply(Long ownerId, NoteCounterDelta delta) {
+        Map<NoteCounterState, Long> changes = delta.nonZero();
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (var change : changes.entrySet()) {
+            if (counterRepository.increment(ownerId, change.getKey(), change.getValue()) == 0) {
+                // Rows are created together, so a miss on the first state means none exist yet
+                initialize(ownerId);
+                counterRepository.increment(ownerId, change.getKey(), change.getValue());
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public NoteCounts getCounts(Long ownerId) {
+        List<NoteCounter> rows = counterRepository.findByOwnerId(ownerId);
+        if (rows.isEmpty()) {
+            initialize(ownerId);
+            rows = counterRepository.findByOwnerId(ownerId);
+        }
+        Map<NoteCounterState, Long> counts = new EnumMap<>(NoteCounterState.class);
+        rows.forEach(row -> counts.put(row.getState(), row.getCount()));
+        return new NoteCounts(
+                counts.getOrDefault(NoteCounterState.ACTIVE, 0L),
+                counts.getOrDefault(NoteCounterState.ARCHIVED, 0L),
+                counts.getOrDefault(NoteCounterState.TRASHED, 0L),
+                counts.getOrDefault(NoteCounterState.PINNED, 0L)
+        );
+    }
+
+    /**
+     * Builds the owner's counter rows from committed notes. Runs in its own transaction so changes
+     * pending in the caller's transaction are not counted twice when its delta is applied afterwards.
+     */
+    private void initialize(Long ownerId) {
+        try {
+            initTransaction.executeWithoutResult(status -> {
+                Map<NoteCounterState, Long> counts = new EnumMap<>(NoteCounterState.class);
+                for (NoteCounterState state : NoteCounterState.values()) {
+                    counts.put(state, 0L);
+                }
+                for (NoteStateCount group : noteRepository.countStatesByOwnerId(ownerId)) {
+                    NoteCounterState.of(group.pinned(), group.archived(), group.trashed())
+                            .forEach(state -> counts.merge(state, group.count(), Long::sum));
+                }
+                counts.forEach((state, count) ->
+                        counterRepository.save(new NoteCounter(ownerId, state, count)));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another transaction initialized the same owner concurrently; its rows are equivalent
+        }
+    }
+}
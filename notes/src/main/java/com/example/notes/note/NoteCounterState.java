@@ -0,0 +1,31 @@
+package com.example.notes.note;
+
+import java.util.EnumSet;
+
+/**
+ * Buckets tracked per owner in {@code note_counters}. PINNED is a subset of ACTIVE.
+ */
+public enum NoteCounterState {
+    ACTIVE,
+    ARCHIVED,
+    TRASHED,
+    PINNED;
+
+    /**
+     * Buckets a note with the given flags falls into, applying the same precedence as Note.normalizeState
+     * (trashed wins over archived, which wins over pinned).
+     */
+    public static EnumSet<NoteCounterState> of(boolean pinned, boolean archived, boolean trashed) {
+        if (trashed) {
+            return EnumSet.of(TRASHED);
+        }
+        if (archived) {
+            return EnumSet.of(ARCHIVED);
+        }
+        return pinned ? EnumSet.of(ACTIVE, PINNED) : EnumSet.of(ACTIVE);
+    }
+
+    public static EnumSet<NoteCounterState> of(Note note) {
+        return of(note.isPinned(), note.isArchived(), note.isTrashed());
+    }
+}
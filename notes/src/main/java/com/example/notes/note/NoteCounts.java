@@ -0,0 +1,7 @@
+package com.example.notes.note;
+
+/**
+ * Snapshot of an owner's note counters.
+ */
+public record NoteCounts(long active, long archived, long trashed, long pinned) {
+}
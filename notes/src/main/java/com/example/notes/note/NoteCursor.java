@@ -0,0 +1,40 @@
+package com.example.notes.note;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset position in the default note ordering (pinned desc, updatedAt desc, id desc).
+ * Serialized as an opaque URL-safe token for {@code GET /api/notes?cursor=}.
+ */
+public record NoteCursor(boolean pinned, Instant updatedAt, Long id) {
+
+    public static final Sort ORDER = Sort.by(Sort.Direction.DESC, "pinned", "updatedAt", "id");
+
+    public static NoteCursor of(Note note) {
+        return new NoteCursor(note.isPinned(), note.getUpdatedAt(), note.getId());
+    }
+
+    public String encode() {
+        String raw = (pinned ? "1" : "0") + ":" + updatedAt.getEpochSecond() + ":" + updatedAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static NoteCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 4 || !(parts[0].equals("0") || parts[0].equals("1"))) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Instant updatedAt = Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            return new NoteCursor(parts[0].equals("1"), updatedAt, Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | java.time.DateTimeException e) {
+            // NumberFormatException is an IllegalArgumentException as well
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
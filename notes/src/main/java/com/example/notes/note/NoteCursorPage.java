@@ -0,0 +1,9 @@
+package com.example.notes.note;
+
+import java.util.List;
+
+/**
+ * One keyset page of notes; {@code next} is null on the last page.
+ */
+public record NoteCursorPage(List<Note> notes, NoteCursor next) {
+}
@@ -0,0 +1,10 @@
+package com.example.notes.note;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk permanent delete: how many notes were removed and which requested ids
+ * were missing or not owned by the caller.
+ */
+public record NoteDeleteResult(int deleted, List<Long> notFoundIds) {
+}
@@ -1,17 +1,25 @@
 package com.example.notes.note;
 
 import com.example.notes.user.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Repository for Note with combined search, tag filters, and entity graph support.
  */
-public interface NoteRepository extends JpaRepository<Note, Long>, JpaSpecificationExecutor<Note> {
+public interface NoteRepository extends JpaRepository<Note, Long>, JpaSpecificationExecutor<Note>, NoteRepositoryCustom {
 
     @EntityGraph(value = "Note.withTags", type = EntityGraph.EntityGraphType.LOAD)
     Page<Note> findByOwner(User owner, Pageable pageable);
@@ -46,13 +54,113 @@ public interface NoteRepository extends JpaRepository<Note, Long>, JpaSpecificat
     @EntityGraph(value = "Note.withTags", type = EntityGraph.EntityGraphType.LOAD)
     Page<Note> findByOwnerAndTagId(User owner, Long tagId, Pageable pageable);
 
+    @EntityGraph(value = "Note.withTags", type = EntityGraph.EntityGraphType.LOAD)
+    List<Note> findByIdIn(Collection<Long> ids);
+
     @Query("""
-        select n from Note n
-        join n.tags t
-        where n.owner = :owner and t.id in :tagIds
-        group by n
-        having count(distinct t.id) = :tagCount
+        select new com.example.notes.note.NoteSearchDocument(n.id, n.owner.id, n.title, n.content)
+        from Note n
+        where n.owner.id = :ownerId
         """)
-    @EntityGraph(value = "Note.withTags", type = EntityGraph.EntityGraphType.LOAD)
-    Page<Note> findByOwnerAndAllTagIds(User owner, java.util.List<Long> tagIds, long tagCount, Pageable pageable);
+    List<NoteSearchDocument> findSearchDocumentsByOwnerId(Long ownerId);
+
+    /**
+     * PostgreSQL only: ranked full-text match against the GIN-indexed search_vector column (V6 migration).
+     * {@code limit} is the caller's search window, not a cap on the result set.
+     */
+    @Query(value = """
+        select n.id from notes n
+        where n.owner_id = :ownerId and n.search_vector @@ to_tsquery('simple', :tsQuery)
+        order by ts_rank(n.search_vector, to_tsquery('simple', :tsQuery)) desc, n.id desc
+        limit :limit
+        """, nativeQuery = true)
+    List<Long> searchRankedIds(Long ownerId, String tsQuery, int limit);
+
+    @Query("""
+        select new com.example.notes.note.NoteStateCount(n.pinned, n.archived, n.trashed, count(n))
+        from Note n
+        where n.owner.id = :ownerId
+        group by n.pinned, n.archived, n.trashed
+        """)
+    List<NoteStateCount> countStatesByOwnerId(Long ownerId);
+
+    // Bulk state transitions. They bypass entity callbacks, so each one applies the
+    // Note.normalizeState precedence itself and bumps the version explicitly.
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update Note n
+        set n.archived = true, n.pinned = false, n.updatedAt = :now, n.version = coalesce(n.version, 0) + 1
+        where n.owner.id = :ownerId and n.id in :ids
+        """)
+    int archiveAll(Long ownerId, Collection<Long> ids, Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update Note n
+        set n.archived = false, n.updatedAt = :now, n.version = coalesce(n.version, 0) + 1
+        where n.owner.id = :ownerId and n.id in :ids
+        """)
+    int restoreAllFromArchive(Long ownerId, Collection<Long> ids, Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update Note n
+        set n.trashed = true, n.archived = false, n.pinned = false, n.updatedAt = :now,
+            n.trashedAt = coalesce(n.trashedAt, :now), n.version = coalesce(n.version, 0) + 1
+        where n.owner.id = :ownerId and n.id in :ids
+        """)
+    int trashAll(Long ownerId, Collection<Long> ids, Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update Note n
+        set n.trashed = false, n.trashedAt = null, n.updatedAt = :now, n.version = coalesce(n.version, 0) + 1
+        where n.owner.id = :ownerId and n.id in :ids
+        """)
+    int restoreAllFromTrash(Long ownerId, Collection<Long> ids, Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update Note n
+        set n.updatedAt = :now, n.version = coalesce(n.version, 0) + 1
+        where n.owner.id = :ownerId and n.id in :ids
+        """)
+    int touchAll(Long ownerId, Collection<Long> ids, Instant now);
+
+    /**
+     * Ownership-checked lock for batch operations, held until the bulk statement commits. Rows are
+     * locked in id order so overlapping batches cannot deadlock on each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        select new com.example.notes.note.NoteStateRow(n.id, n.pinned, n.archived, n.trashed, n.trashedAt)
+        from Note n
+        where n.owner.id = :ownerId and n.id in :ids
+        order by n.id
+        """)
+    List<NoteStateRow> findOwnedStatesForUpdate(Long ownerId, Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from note_tags where note_id in (:noteIds)", nativeQuery = true)
+    int deleteTagLinks(Collection<Long> noteIds);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "delete from notes where owner_id = :ownerId and id in (:ids)", nativeQuery = true)
+    int deleteOwned(Long ownerId, Collection<Long> ids);
+
+    @Query("select n.id from Note n where n.owner.id = :ownerId and n.trashed = true order by n.id")
+    List<Long> findTrashedIds(Long ownerId, Limit limit);
+
+    /**
+     * Notes trashed before {@code cutoff}, in (trashedAt, id) order after the given keyset position.
+     */
+    @Query("""
+        select new com.example.notes.note.TrashedNoteRef(n.id, n.owner.id, n.trashedAt)
+        from Note n
+        where n.trashed = true and n.trashedAt < :cutoff
+          and (n.trashedAt > :afterTrashedAt or (n.trashedAt = :afterTrashedAt and n.id > :afterId))
+        order by n.trashedAt, n.id
+        """)
+    List<TrashedNoteRef> findExpiredTrash(Instant cutoff, Instant afterTrashedAt, Long afterId, Limit limit);
 }
@@ -0,0 +1,28 @@
+package com.example.notes.note;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Query fragments that Spring Data derived queries and specifications cannot express directly.
+ */
+public interface NoteRepositoryCustom {
+
+    /**
+     * Returns only the ids of notes matching the specification, without hydrating entities.
+     */
+    List<Long> findIds(Specification<Note> spec);
+
+    /**
+     * Page of notes without the count query: fetches one extra row to tell whether a next page exists.
+     */
+    Slice<Note> findSlice(Specification<Note> spec, Pageable pageable);
+
+    /**
+     * Counts matching notes but stops at {@code limit}, so the cost is bounded for very large result sets.
+     */
+    long countUpTo(Specification<Note> spec, int limit);
+}
@@ -0,0 +1,87 @@
+package com.example.notes.note;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.Path;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * Criteria-based implementation of {@link NoteRepositoryCustom}.
+ */
+class NoteRepositoryImpl implements NoteRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findIds(Specification<Note> spec) {
+        return idQuery(spec).getResultList();
+    }
+
+    @Override
+    public Slice<Note> findSlice(Specification<Note> spec, Pageable pageable) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(Note.class);
+        var root = query.from(Note.class);
+        var predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        var typed = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typed.getResultList(), pageable, false);
+        }
+        typed.setFirstResult((int) pageable.getOffset());
+        typed.setMaxResults(pageable.getPageSize() + 1);
+        List<Note> rows = typed.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public long countUpTo(Specification<Note> spec, int limit) {
+        // select count(*) from (select id from notes where ... limit :limit): the database stops
+        // after limit rows and only the count comes back
+        var cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        JpaCriteriaQuery<Long> query = cb.createQuery(Long.class);
+        JpaSubQuery<Long> ids = query.subquery(Long.class);
+        var root = ids.from(Note.class);
+        var predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            ids.where(predicate);
+        }
+        // Subqueries in the from clause need named columns
+        Path<Long> id = root.get("id");
+        id.alias("id");
+        ids.select(id).fetch(limit);
+        query.from(ids);
+        query.select(cb.count());
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private TypedQuery<Long> idQuery(Specification<Note> spec) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(Long.class);
+        var root = query.from(Note.class);
+        var predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root.get("id"));
+        return entityManager.createQuery(query);
+    }
+}
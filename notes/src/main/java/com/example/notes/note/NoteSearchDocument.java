@@ -0,0 +1,15 @@
+package com.example.notes.note;
+
+/**
+ * Searchable projection of a note (no tags, no lazy owner).
+ */
+public record NoteSearchDocument(
+        Long id,
+        Long ownerId,
+        String title,
+        String content
+) {
+    public static NoteSearchDocument of(Note note) {
+        return new NoteSearchDocument(note.getId(), note.getOwner().getId(), note.getTitle(), note.getContent());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.notes.note;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Pluggable full-text search over a user's notes.
+ * Implementations resolve candidate note ids; callers apply the remaining filters and hydrate only the page they return.
+ */
+public interface NoteSearchEngine {
+
+    /**
+     * Returns ids of the best {@code limit} of the owner's notes matching the query, best match first.
+     * Fewer than {@code limit} ids means there are no further matches.
+     */
+    List<Long> search(Long ownerId, String query, boolean searchInContent, int limit);
+
+    /**
+     * Returns ids of the owner's notes that may contain the fragment as a substring (trigram lookup).
+     * Candidates still need the substring predicate applied; an empty Optional means the engine
+     * does not narrow candidates and the predicate should run on its own.
+     */
+    Optional<Set<Long>> substringCandidates(Long ownerId, String fragment, boolean searchInContent);
+
+    /**
+     * Adds or replaces a note in the index.
+     */
+    void index(NoteSearchDocument document);
+
+    /**
+     * Removes a note from the index.
+     */
+    void remove(Long ownerId, Long noteId);
+}
@@ -0,0 +1,17 @@
+package com.example.notes.note;
+
+/**
+ * Chooses how a notes search query is resolved.
+ * Short fragments typed into the search box are matched as substrings (trigram-backed);
+ * longer queries go through ranked full-text search.
+ */
+public enum NoteSearchMode {
+    FULL_TEXT,
+    SUBSTRING;
+
+    static final int SUBSTRING_MAX_LENGTH = 4;
+
+    public static NoteSearchMode of(String query) {
+        return query.trim().length() <= SUBSTRING_MAX_LENGTH ? SUBSTRING : FULL_TEXT;
+    }
+}
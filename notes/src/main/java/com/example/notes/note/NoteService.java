@@ -3,18 +3,38 @@ package com.example.notes.note;
 import com.example.notes.audit.AuditService;
 import com.example.notes.common.NotFoundException;
 import com.example.notes.tag.Tag;
+import com.example.notes.tag.TagFilter;
+import com.example.notes.tag.TagMatch;
 import com.example.notes.tag.TagService;
 import com.example.notes.user.User;
 import com.example.notes.user.UserService;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Note service: CRUD, filters, combined search, batch tag operations.
@@ -23,19 +43,34 @@ import java.util.Set;
 @Transactional
 public class NoteService {
 
+    private static final int MAX_INLINE_IDS = 1000;
+    private static final int ESTIMATE_COUNT_CAP = 10_000;
+
     private final NoteRepository noteRepository;
     private final UserService userService;
     private final TagService tagService;
     private final AuditService auditService;
+    private final NoteSearchEngine searchEngine;
+    private final NoteCounterService counterService;
+    private final int maxSearchCandidates;
 
     public NoteService(NoteRepository noteRepository,
                        UserService userService,
                        TagService tagService,
-                       AuditService auditService) {
+                       AuditService auditService,
+                       NoteSearchEngine searchEngine,
+                       NoteCounterService counterService,
+                       @Value("${notes.search.max-results:1000}") int maxSearchCandidates) {
+        if (maxSearchCandidates <= 0) {
+            throw new IllegalArgumentException("Search max results must be positive");
+        }
         this.noteRepository = noteRepository;
         this.userService = userService;
         this.tagService = tagService;
         this.auditService = auditService;
+        this.searchEngine = searchEngine;
+        this.counterService = counterService;
+        this.maxSearchCandidates = maxSearchCandidates;
     }
 
 
@@ -62,29 +97,373 @@ public class NoteService {
                 .updatedAt(Instant.now())
                 .build();
         Note saved = noteRepository.save(note);
+        searchEngine.index(NoteSearchDocument.of(saved));
+        counterService.apply(ownerId, new NoteCounterDelta().added(NoteCounterState.of(saved)));
         auditService.record(ownerId, "CREATE_NOTE", "NOTE", saved.getId(), "Created note with title: " + title);
         return saved;
     }
 
+    /**
+     * Lists notes with filters and search. Returns a {@link Page} unless {@code countMode} is NONE,
+     * in which case only a {@link Slice} is fetched and no count query runs.
+     */
     @Transactional(readOnly = true)
-    public Page<Note> listNotes(Long ownerId, Pageable pageable,
-                                Boolean archived, Boolean trashed, Boolean pinned,
-                                String query, boolean searchInContent,
-                                List<Long> tagIds) {
+    public Slice<Note> listNotes(Long ownerId, Pageable pageable,
+                                 Boolean archived, Boolean trashed, Boolean pinned,
+                                 String query, boolean searchInContent,
+                                 TagFilter tags, NoteCountMode countMode) {
         User owner = userService.getByIdOrThrow(ownerId);
+        var tagSpec = tagFilter(ownerId, tags);
+        if (tagSpec == null) {
+            return Page.empty(pageable);
+        }
+        var spec = filterSpec(owner, archived, trashed, pinned).and(tagSpec);
+
+        if (query == null || query.isBlank()) {
+            if (countMode != NoteCountMode.NONE && tags.isEmpty()) {
+                var total = counterTotal(ownerId, archived, trashed, pinned);
+                if (total.isPresent()) {
+                    Slice<Note> slice = noteRepository.findSlice(spec, pageable);
+                    return new PageImpl<>(slice.getContent(), pageable, total.getAsLong());
+                }
+            }
+            return fetch(spec, pageable, countMode);
+        }
+        if (NoteSearchMode.of(query) == NoteSearchMode.FULL_TEXT) {
+            // Candidates come from the search index; the database only applies the remaining filters
+            if (pageable.getSort().isUnsorted()) {
+                return rankedPage(ownerId, query, searchInContent, spec, pageable, countMode);
+            }
+            List<Long> matches = searchEngine.search(ownerId, query, searchInContent, Integer.MAX_VALUE);
+            if (matches.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            if (matches.size() <= MAX_INLINE_IDS) {
+                return fetch(spec.and(NoteSpecifications.withIds(matches)), pageable, countMode);
+            }
+            return sortedPage(spec, matches, pageable, countMode);
+        }
+        var search = substringFilter(ownerId, query, searchInContent);
+        if (search == null) {
+            return Page.empty(pageable);
+        }
+        return fetch(spec.and(search), pageable, countMode);
+    }
 
+    /**
+     * Total for a plain state listing read from the owner's counters, or empty when the filter
+     * combination does not map onto them and a count query is needed.
+     */
+    private OptionalLong counterTotal(Long ownerId, Boolean archived, Boolean trashed, Boolean pinned) {
+        boolean defaultView = archived == null && trashed == null;
+        boolean archivedView = Boolean.TRUE.equals(archived) && !Boolean.TRUE.equals(trashed);
+        boolean trashedView = Boolean.TRUE.equals(trashed) && !Boolean.TRUE.equals(archived);
+        if (!defaultView && !archivedView && !trashedView) {
+            return OptionalLong.empty();
+        }
+        NoteCounts counts = counterService.getCounts(ownerId);
+        if (defaultView) {
+            if (pinned == null) {
+                return OptionalLong.of(counts.active());
+            }
+            return OptionalLong.of(pinned ? counts.pinned() : counts.active() - counts.pinned());
+        }
+        // Archived and trashed notes are never pinned
+        if (Boolean.TRUE.equals(pinned)) {
+            return OptionalLong.of(0);
+        }
+        return OptionalLong.of(archivedView ? counts.archived() : counts.trashed());
+    }
+
+    /**
+     * O(1) note counts per state from the owner's counters.
+     */
+    @Transactional(readOnly = true)
+    public NoteCounts getStats(Long ownerId) {
+        userService.getByIdOrThrow(ownerId);
+        return counterService.getCounts(ownerId);
+    }
+
+    private Slice<Note> fetch(Specification<Note> spec, Pageable pageable, NoteCountMode countMode) {
+        return switch (countMode) {
+            case EXACT -> noteRepository.findAll(spec, pageable);
+            case NONE -> noteRepository.findSlice(spec, pageable);
+            case ESTIMATE -> estimatedPage(spec, pageable);
+        };
+    }
+
+    /**
+     * The last page knows its total for free; otherwise counting stops at {@link #ESTIMATE_COUNT_CAP}
+     * rows, so the reported total is a lower bound for very large result sets.
+     */
+    private Page<Note> estimatedPage(Specification<Note> spec, Pageable pageable) {
+        Slice<Note> slice = noteRepository.findSlice(spec, pageable);
+        if (!slice.hasNext()) {
+            long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+            return new PageImpl<>(slice.getContent(), pageable, offset + slice.getNumberOfElements());
+        }
+        return new PageImpl<>(slice.getContent(), pageable, noteRepository.countUpTo(spec, ESTIMATE_COUNT_CAP));
+    }
+
+    /**
+     * Keyset variant of {@link #listNotes}: ordered by pinned, updatedAt and id (all descending),
+     * continuing after {@code cursor} (null for the first page). No count query is issued and the
+     * cost of a page does not depend on its depth.
+     */
+    @Transactional(readOnly = true)
+    public NoteCursorPage listNotesAfter(Long ownerId, NoteCursor cursor, int size,
+                                         Boolean archived, Boolean trashed, Boolean pinned,
+                                         String query, boolean searchInContent,
+                                         TagFilter tags) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        User owner = userService.getByIdOrThrow(ownerId);
+        var tagSpec = tagFilter(ownerId, tags);
+        if (tagSpec == null) {
+            return new NoteCursorPage(List.of(), null);
+        }
+        var spec = filterSpec(owner, archived, trashed, pinned)
+                .and(tagSpec)
+                .and(NoteSpecifications.after(cursor));
+
+        if (query != null && !query.isBlank()) {
+            if (NoteSearchMode.of(query) == NoteSearchMode.FULL_TEXT) {
+                List<Long> matches = searchEngine.search(ownerId, query, searchInContent, Integer.MAX_VALUE);
+                if (matches.isEmpty()) {
+                    return new NoteCursorPage(List.of(), null);
+                }
+                if (matches.size() > MAX_INLINE_IDS) {
+                    // The keyset applies to every IN list chunk; the chunk heads are merged in order
+                    return cursorPage(sortedMatches(spec, matches, NoteCursor.ORDER, size + 1, false).notes(), size);
+                }
+                spec = spec.and(NoteSpecifications.withIds(matches));
+            } else {
+                var search = substringFilter(ownerId, query, searchInContent);
+                if (search == null) {
+                    return new NoteCursorPage(List.of(), null);
+                }
+                spec = spec.and(search);
+            }
+        }
+
+        // One extra row tells whether another page exists
+        return cursorPage(noteRepository.findBy(spec, q -> q.sortBy(NoteCursor.ORDER).limit(size + 1).all()), size);
+    }
+
+    private static NoteCursorPage cursorPage(List<Note> rows, int size) {
+        if (rows.size() <= size) {
+            return new NoteCursorPage(rows, null);
+        }
+        List<Note> notes = rows.subList(0, size);
+        return new NoteCursorPage(notes, NoteCursor.of(notes.get(size - 1)));
+    }
+
+    private Specification<Note> filterSpec(User owner, Boolean archived, Boolean trashed, Boolean pinned) {
         var spec = NoteSpecifications.withOwner(owner)
                 .and(NoteSpecifications.withArchived(archived))
                 .and(NoteSpecifications.withTrashed(trashed))
-                .and(NoteSpecifications.withPinned(pinned))
-                .and(NoteSpecifications.withQuery(query, searchInContent))
-                .and(NoteSpecifications.withAllTagIds(tagIds));
+                .and(NoteSpecifications.withPinned(pinned));
 
         if (archived == null && trashed == null) {
             spec = spec.and(NoteSpecifications.withArchived(false)).and(NoteSpecifications.withTrashed(false));
         }
+        return spec;
+    }
 
-        return noteRepository.findAll(spec, pageable);
+    /**
+     * Tag restriction, or null when nothing can match. The filter is resolved to note ids by the
+     * tag bitmap index; small results are applied as an id list, very large ones fall back to the
+     * tag subqueries so the statement does not carry a huge IN list.
+     */
+    private Specification<Note> tagFilter(Long ownerId, TagFilter tags) {
+        if (tags == null || tags.isEmpty()) {
+            return Specification.where(null);
+        }
+        Optional<TagMatch> indexed = tagService.matchNotes(ownerId, tags);
+        if (indexed.isPresent()) {
+            TagMatch match = indexed.get();
+            if (match.notes() != null) {
+                if (match.notes().isEmpty()) {
+                    return null;
+                }
+                if (match.notes().getLongCardinality() <= MAX_INLINE_IDS) {
+                    return NoteSpecifications.withIds(toIds(match.notes().toArray()));
+                }
+            } else if (match.excludedNotes().getLongCardinality() <= MAX_INLINE_IDS) {
+                return NoteSpecifications.withoutIds(toIds(match.excludedNotes().toArray()));
+            }
+        }
+        // Index disabled, or too many ids to inline: resolve the filter with subqueries
+        return NoteSpecifications.withAllTagIds(tags.all())
+                .and(NoteSpecifications.withAnyTagIds(tags.any()))
+                .and(NoteSpecifications.withNoTagIds(tags.none()));
+    }
+
+    private static List<Long> toIds(long[] ids) {
+        return Arrays.stream(ids).boxed().toList();
+    }
+
+    /**
+     * LIKE restriction for short fragments, or null when nothing can match; narrowed by trigram
+     * candidates when the engine provides them.
+     */
+    private Specification<Note> substringFilter(Long ownerId, String query, boolean searchInContent) {
+        Specification<Note> spec = NoteSpecifications.withQuery(query, searchInContent);
+        var candidates = searchEngine.substringCandidates(ownerId, query.trim(), searchInContent);
+        if (candidates.isPresent()) {
+            if (candidates.get().isEmpty()) {
+                return null;
+            }
+            // Very common fragments are cheaper to scan than to ship as a huge IN list
+            if (candidates.get().size() <= MAX_INLINE_IDS) {
+                spec = spec.and(NoteSpecifications.withIds(candidates.get()));
+            }
+        }
+        return spec;
+    }
+
+    /**
+     * Keeps search relevance order and hydrates only the notes on the requested page.
+     * Ranked ids are pulled from the engine in windows that double until the count mode is
+     * satisfied: EXACT reads every match, ESTIMATE stops at {@link #ESTIMATE_COUNT_CAP} (the total
+     * is then a lower bound) and NONE stops one past the page. Pages beyond the first window stay reachable.
+     */
+    private Slice<Note> rankedPage(Long ownerId, String query, boolean searchInContent,
+                                   Specification<Note> spec, Pageable pageable, NoteCountMode countMode) {
+        long pageEnd = pageable.isPaged() ? pageable.getOffset() + pageable.getPageSize() : Long.MAX_VALUE;
+        long wanted = switch (countMode) {
+            case EXACT -> Long.MAX_VALUE;
+            case ESTIMATE -> Math.max(pageEnd, ESTIMATE_COUNT_CAP);
+            case NONE -> pageEnd;
+        };
+        // Ids already filtered in an earlier window; concurrent edits may reorder the engine's ranking
+        Set<Long> seen = new HashSet<>();
+        List<Long> ordered = new ArrayList<>();
+        int window = maxSearchCandidates;
+        while (true) {
+            List<Long> ranked = searchEngine.search(ownerId, query, searchInContent, window);
+            List<Long> fresh = ranked.stream().filter(seen::add).toList();
+            ordered.addAll(matching(spec, fresh));
+            if (ranked.size() < window || ordered.size() > wanted || window == Integer.MAX_VALUE) {
+                break;
+            }
+            window = (int) Math.min(2L * window, Integer.MAX_VALUE);
+        }
+
+        List<Long> pageIds = ordered;
+        if (pageable.isPaged()) {
+            int from = (int) Math.min(pageable.getOffset(), ordered.size());
+            int to = Math.min(from + pageable.getPageSize(), ordered.size());
+            pageIds = ordered.subList(from, to);
+        }
+        List<Note> content = List.of();
+        if (!pageIds.isEmpty()) {
+            Map<Long, Note> byId = noteRepository.findByIdIn(pageIds).stream()
+                    .collect(Collectors.toMap(Note::getId, Function.identity()));
+            content = pageIds.stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+        if (countMode == NoteCountMode.NONE) {
+            return new SliceImpl<>(content, pageable, ordered.size() > pageEnd);
+        }
+        return new PageImpl<>(content, pageable, ordered.size());
+    }
+
+    /**
+     * The ids, in their given order, that also satisfy {@code spec}; checked in IN lists of at most
+     * {@link #MAX_INLINE_IDS}.
+     */
+    private List<Long> matching(Specification<Note> spec, List<Long> ids) {
+        List<Long> matching = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MAX_INLINE_IDS) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_INLINE_IDS, ids.size()));
+            Set<Long> matched = new HashSet<>(noteRepository.findIds(spec.and(NoteSpecifications.withIds(chunk))));
+            chunk.stream().filter(matched::contains).forEach(matching::add);
+        }
+        return matching;
+    }
+
+    /**
+     * A page of the notes among {@code ids} that satisfy {@code spec}, in the pageable's sort order,
+     * for id lists too long to inline. The total is exact in both counted modes.
+     */
+    private Slice<Note> sortedPage(Specification<Note> spec, List<Long> ids, Pageable pageable, NoteCountMode countMode) {
+        long pageEnd = pageable.isPaged() ? pageable.getOffset() + pageable.getPageSize() : Integer.MAX_VALUE;
+        // One extra row tells an uncounted slice whether another page exists
+        int limit = (int) Math.min(pageEnd + 1, Integer.MAX_VALUE);
+        SortedMatches matches = sortedMatches(spec, ids, pageable.getSort(), limit, countMode != NoteCountMode.NONE);
+        List<Note> notes = matches.notes();
+        int from = (int) Math.min(pageable.isPaged() ? pageable.getOffset() : 0, notes.size());
+        List<Note> content = notes.subList(from, (int) Math.min(pageEnd, notes.size()));
+        if (countMode == NoteCountMode.NONE) {
+            return new SliceImpl<>(content, pageable, notes.size() > pageEnd);
+        }
+        return new PageImpl<>(content, pageable, matches.total());
+    }
+
+    /**
+     * The first {@code limit} notes among {@code ids} that satisfy {@code spec}, in {@code sort} order,
+     * and with {@code count} how many match in total. The database sorts and cuts each IN list of
+     * {@link #MAX_INLINE_IDS}; the heads of the chunks are merged here. String keys compare by code
+     * point when merging, which can differ from the database collation for ties across chunks.
+     */
+    private SortedMatches sortedMatches(Specification<Note> spec, List<Long> ids, Sort sort, int limit, boolean count) {
+        Comparator<Note> order = inMemoryOrder(sort);
+        List<Note> merged = new ArrayList<>();
+        long total = 0;
+        for (int from = 0; from < ids.size(); from += MAX_INLINE_IDS) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_INLINE_IDS, ids.size()));
+            Specification<Note> chunkSpec = spec.and(NoteSpecifications.withIds(chunk));
+            List<Note> rows = noteRepository.findBy(chunkSpec, q -> q.sortBy(sort).limit(limit).all());
+            if (count) {
+                // A chunk that did not fill the limit knows its count for free
+                total += rows.size() < limit ? rows.size() : noteRepository.count(chunkSpec);
+            }
+            merged.addAll(rows);
+            merged.sort(order);
+            if (merged.size() > limit) {
+                merged.subList(limit, merged.size()).clear();
+            }
+        }
+        return new SortedMatches(merged, total);
+    }
+
+    private record SortedMatches(List<Note> notes, long total) {
+    }
+
+    /**
+     * {@code sort} applied to loaded notes. Nulls order as on PostgreSQL unless the order says
+     * otherwise: last when ascending, first when descending.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Note> inMemoryOrder(Sort sort) {
+        Comparator<Note> order = (a, b) -> 0;
+        for (Sort.Order property : sort) {
+            Comparator<Comparable> values = Comparator.naturalOrder();
+            if (property.isDescending()) {
+                values = values.reversed();
+            }
+            boolean nullsFirst = switch (property.getNullHandling()) {
+                case NULLS_FIRST -> true;
+                case NULLS_LAST -> false;
+                case NATIVE -> property.isDescending();
+            };
+            values = nullsFirst ? Comparator.nullsFirst(values) : Comparator.nullsLast(values);
+            order = order.thenComparing(note -> sortKey(note, property), values);
+        }
+        return order;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Comparable sortKey(Note note, Sort.Order property) {
+        Object value = new BeanWrapperImpl(note).getPropertyValue(property.getProperty());
+        if (value instanceof String text && property.isIgnoreCase()) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+        return (Comparable) value;
     }
 
     @Transactional(readOnly = true)
@@ -100,6 +479,7 @@ public class NoteService {
         Note note = noteRepository.findById(noteId)
                 .orElseThrow(() -> new NotFoundException("Note not found"));
         ensureOwner(ownerId, note);
+        var before = NoteCounterState.of(note);
 
         if (title != null) note.setTitle(title);
         if (content != null) {
@@ -114,6 +494,10 @@ public class NoteService {
 
         note.setUpdatedAt(Instant.now());
         Note saved = noteRepository.save(note);
+        if (title != null || content != null) {
+            searchEngine.index(NoteSearchDocument.of(saved));
+        }
+        counterService.apply(ownerId, new NoteCounterDelta().transition(before, NoteCounterState.of(saved)));
         auditService.record(ownerId, "UPDATE_NOTE", "NOTE", saved.getId(), "Updated note");
         return saved;
     }
@@ -122,11 +506,13 @@ public class NoteService {
         Note note = noteRepository.findById(noteId)
                 .orElseThrow(() -> new NotFoundException("Note not found"));
         ensureOwner(ownerId, note);
+        var before = NoteCounterState.of(note);
         note.setTrashed(true);
         note.setArchived(false);
         note.setPinned(false);
         note.setUpdatedAt(Instant.now());
         noteRepository.save(note);
+        counterService.apply(ownerId, new NoteCounterDelta().transition(before, NoteCounterState.of(note)));
         auditService.record(ownerId, "NOTE_TRASHED", "NOTE", noteId, "Moved note to trash");
     }
 
@@ -139,7 +525,11 @@ public class NoteService {
             throw new IllegalArgumentException("Cannot tag trashed note");
         }
         Tag tag = tagService.getOwnedTagOrThrow(ownerId, tagId);
-        note.getTags().add(tag);
+        // Tags come from the cache as snapshots, so membership is decided by id
+        if (note.getTags().stream().noneMatch(existing -> existing.getId().equals(tagId))) {
+            note.getTags().add(tag);
+            tagService.noteTagged(ownerId, noteId, tagId);
+        }
         note.setUpdatedAt(Instant.now());
         return noteRepository.save(note);
     }
@@ -149,15 +539,18 @@ public class NoteService {
             throw new IllegalArgumentException("Tag ID must be a positive number");
         }
         Note note = getNote(ownerId, noteId);
-        Tag tag = tagService.getOwnedTagOrThrow(ownerId, tagId);
-        note.getTags().remove(tag);
+        tagService.getOwnedTagOrThrow(ownerId, tagId);
+        if (note.getTags().removeIf(existing -> existing.getId().equals(tagId))) {
+            tagService.noteUntagged(ownerId, noteId, tagId);
+        }
         note.setUpdatedAt(Instant.now());
         return noteRepository.save(note);
     }
 
     /**
      * Replaces note tags with the given set (owned by the user).
-     * Validates that tag list is not null and all tags exist.
+     * Validates that tag list is not null and all tags exist. The note's tag collection is updated
+     * in place, so only the note_tags rows that actually change are inserted or deleted.
      */
     public Note setTags(Long ownerId, Long noteId, List<Long> tagIds) {
         if (tagIds == null) {
@@ -169,7 +562,8 @@ public class NoteService {
         if (tagIds.isEmpty()) {
             // Allow empty tags - clears all tags from note
             Note note = getNote(ownerId, noteId);
-            note.setTags(new HashSet<>());
+            note.getTags().forEach(tag -> tagService.noteUntagged(ownerId, noteId, tag.getId()));
+            note.getTags().clear();
             note.setUpdatedAt(Instant.now());
             return noteRepository.save(note);
         }
@@ -178,15 +572,26 @@ public class NoteService {
         if (note.isTrashed()) {
             throw new IllegalArgumentException("Cannot tag trashed note");
         }
-        
-        Set<Tag> newTags = new HashSet<>();
         for (Long tagId : tagIds) {
             if (tagId == null || tagId <= 0) {
                 throw new IllegalArgumentException("Tag ID must be a positive number");
             }
-            newTags.add(tagService.getOwnedTagOrThrow(ownerId, tagId));
         }
-        note.setTags(newTags);
+
+        Map<Long, Tag> wanted = new HashMap<>();
+        tagService.getOwnedTagsOrThrow(ownerId, tagIds).forEach(tag -> wanted.put(tag.getId(), tag));
+        // Replacing the collection would make Hibernate delete and re-insert every row
+        Set<Tag> current = note.getTags();
+        current.removeIf(tag -> {
+            if (wanted.containsKey(tag.getId())) {
+                return false;
+            }
+            tagService.noteUntagged(ownerId, noteId, tag.getId());
+            return true;
+        });
+        current.forEach(tag -> wanted.remove(tag.getId()));
+        wanted.keySet().forEach(tagId -> tagService.noteTagged(ownerId, noteId, tagId));
+        current.addAll(wanted.values());
         note.setUpdatedAt(Instant.now());
         return noteRepository.save(note);
     }
@@ -4,12 +4,20 @@ import com.example.notes.tag.Tag;
 import com.example.notes.user.User;
 import org.springframework.data.jpa.domain.Specification;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public final class NoteSpecifications {
 
+    private static final char LIKE_ESCAPE = '\\';
+
     private NoteSpecifications() {
     }
 
@@ -34,16 +42,52 @@ public final class NoteSpecifications {
             if (queryText == null || queryText.isBlank()) {
                 return null;
             }
-            String phrase = "%" + queryText.trim().toLowerCase() + "%";
-            var titlePredicate = cb.like(cb.lower(root.get("title")), phrase);
+            String phrase = "%" + escapeLike(queryText.trim().toLowerCase()) + "%";
+            var titlePredicate = cb.like(cb.lower(root.get("title")), phrase, LIKE_ESCAPE);
             if (searchInContent) {
-                var contentPredicate = cb.like(cb.lower(root.get("content")), phrase);
+                var contentPredicate = cb.like(cb.lower(root.get("content")), phrase, LIKE_ESCAPE);
                 return cb.or(titlePredicate, contentPredicate);
             }
             return titlePredicate;
         };
     }
 
+    // User input is matched literally: % and _ must not act as wildcards
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    public static Specification<Note> withIds(Collection<Long> ids) {
+        return (root, query, cb) -> ids == null ? null : root.get("id").in(ids);
+    }
+
+    public static Specification<Note> withoutIds(Collection<Long> ids) {
+        return (root, query, cb) -> ids == null || ids.isEmpty() ? null : cb.not(root.get("id").in(ids));
+    }
+
+    /**
+     * Keyset predicate: notes strictly after the cursor in {@link NoteCursor#ORDER}.
+     */
+    public static Specification<Note> after(NoteCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return null;
+            }
+            Path<Instant> updatedAt = root.get("updatedAt");
+            Path<Long> id = root.get("id");
+            var olderWithinGroup = cb.or(
+                    cb.lessThan(updatedAt, cursor.updatedAt()),
+                    cb.and(cb.equal(updatedAt, cursor.updatedAt()), cb.lessThan(id, cursor.id()))
+            );
+            var sameGroup = cb.and(cb.equal(root.get("pinned"), cursor.pinned()), olderWithinGroup);
+            if (!cursor.pinned()) {
+                return sameGroup;
+            }
+            // Pinned notes sort first, so every unpinned note follows a pinned cursor
+            return cb.or(cb.isFalse(root.get("pinned")), sameGroup);
+        };
+    }
+
     public static Specification<Note> withAllTagIds(List<Long> tagIds) {
         return (root, query, cb) -> {
             if (tagIds == null || tagIds.isEmpty()) {
@@ -60,4 +104,32 @@ public final class NoteSpecifications {
             return cb.exists(subquery);
         };
     }
+
+    public static Specification<Note> withAnyTagIds(List<Long> tagIds) {
+        return (root, query, cb) -> {
+            if (tagIds == null || tagIds.isEmpty()) {
+                return null;
+            }
+            return cb.exists(taggedWith(root, query, cb, tagIds));
+        };
+    }
+
+    public static Specification<Note> withNoTagIds(List<Long> tagIds) {
+        return (root, query, cb) -> {
+            if (tagIds == null || tagIds.isEmpty()) {
+                return null;
+            }
+            return cb.not(cb.exists(taggedWith(root, query, cb, tagIds)));
+        };
+    }
+
+    private static Subquery<Long> taggedWith(Root<Note> root, CriteriaQuery<?> query, CriteriaBuilder cb,
+                                             List<Long> tagIds) {
+        var subquery = query.subquery(Long.class);
+        var subRoot = subquery.from(Note.class);
+        var tagsJoin = subRoot.join("tags", JoinType.INNER);
+        subquery.select(subRoot.get("id"));
+        subquery.where(cb.equal(subRoot, root), tagsJoin.get("id").in(tagIds));
+        return subquery;
+    }
 }
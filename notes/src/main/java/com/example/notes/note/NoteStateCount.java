@@ -0,0 +1,7 @@
+package com.example.notes.note;
+
+/**
+ * Number of an owner's notes sharing the same state flags; used to (re)build counters.
+ */
+public record NoteStateCount(boolean pinned, boolean archived, boolean trashed, long count) {
+}
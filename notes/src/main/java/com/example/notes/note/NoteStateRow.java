@@ -0,0 +1,9 @@
+package com.example.notes.note;
+
+import java.time.Instant;
+
+/**
+ * State flags of a single note, read without loading the entity.
+ */
+public record NoteStateRow(Long id, boolean pinned, boolean archived, boolean trashed, Instant trashedAt) {
+}
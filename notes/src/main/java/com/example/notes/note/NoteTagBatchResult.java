@@ -0,0 +1,8 @@
+package com.example.notes.note;
+
+/**
+ * Outcome of a batch tag add or remove: how many notes were targeted and how many
+ * note/tag links were actually inserted or deleted.
+ */
+public record NoteTagBatchResult(int notes, int changed) {
+}
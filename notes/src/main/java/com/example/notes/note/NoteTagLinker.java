@@ -0,0 +1,61 @@
+package com.example.notes.note;
+
+import com.example.notes.common.Databases;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+
+/**
+ * Set-based writes to {@code note_tags}: one statement links or unlinks every note/tag pair,
+ * instead of loading each note and merging its tag collection.
+ *
+ * Links already present are skipped (ON CONFLICT on PostgreSQL, NOT EXISTS elsewhere), so
+ * the returned counts are the rows actually inserted or deleted.
+ */
+@Component
+public class NoteTagLinker {
+
+    private static final String SELECT_PAIRS = """
+            select n.id, t.id from notes n cross join tags t
+            where n.owner_id = :ownerId and n.id in (:noteIds)
+              and t.owner_id = :ownerId and t.id in (:tagIds)""";
+
+    private static final String LINK_POSTGRES = "insert into note_tags (note_id, tag_id) "
+            + SELECT_PAIRS + " on conflict do nothing";
+
+    private static final String LINK_PORTABLE = "insert into note_tags (note_id, tag_id) "
+            + SELECT_PAIRS + " and not exists (select 1 from note_tags nt where nt.note_id = n.id and nt.tag_id = t.id)";
+
+    private static final String UNLINK = """
+            delete from note_tags
+            where note_id in (select n.id from notes n where n.owner_id = :ownerId and n.id in (:noteIds))
+              and tag_id in (:tagIds)""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    public NoteTagLinker(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.postgres = Databases.isPostgres(dataSource);
+    }
+
+    /**
+     * Links every owned note to every owned tag; ids the owner does not own are ignored.
+     */
+    public int link(Long ownerId, Collection<Long> noteIds, Collection<Long> tagIds) {
+        return jdbcTemplate.update(postgres ? LINK_POSTGRES : LINK_PORTABLE, params(ownerId, noteIds, tagIds));
+    }
+
+    public int unlink(Long ownerId, Collection<Long> noteIds, Collection<Long> tagIds) {
+        return jdbcTemplate.update(UNLINK, params(ownerId, noteIds, tagIds));
+    }
+
+    private static MapSqlParameterSource params(Long ownerId, Collection<Long> noteIds, Collection<Long> tagIds) {
+        return new MapSqlParameterSource("ownerId", ownerId)
+                .addValue("noteIds", noteIds)
+                .addValue("tagIds", tagIds);
+    }
+}
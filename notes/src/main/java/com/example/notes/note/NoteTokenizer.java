@@ -0,0 +1,41 @@
+package com.example.notes.note;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits note text into lowercase terms on any non letter/digit character.
+ */
+public final class NoteTokenizer {
+
+    // Longer runs (base64 blobs, URLs without separators) are truncated so they cannot bloat the index
+    static final int MAX_TOKEN_LENGTH = 64;
+
+    private NoteTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+            if (Character.isLetterOrDigit(cp)) {
+                if (current.length() < MAX_TOKEN_LENGTH) {
+                    current.appendCodePoint(Character.toLowerCase(cp));
+                }
+            } else if (!current.isEmpty()) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (!current.isEmpty()) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+}
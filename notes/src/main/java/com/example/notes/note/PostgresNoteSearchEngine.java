@@ -0,0 +1,56 @@
+package com.example.notes.note;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * PostgreSQL full-text search over the generated {@code notes.search_vector} column (GIN indexed).
+ * Results are ranked with {@code ts_rank}; the index is maintained by the database, so index/remove are no-ops.
+ * Substring search relies on the pg_trgm indexes instead of narrowing candidates in the application.
+ */
+public class PostgresNoteSearchEngine implements NoteSearchEngine {
+
+    private final NoteRepository noteRepository;
+
+    public PostgresNoteSearchEngine(NoteRepository noteRepository) {
+        this.noteRepository = noteRepository;
+    }
+
+    @Override
+    public List<Long> search(Long ownerId, String query, boolean searchInContent, int limit) {
+        String tsQuery = toTsQuery(query, searchInContent);
+        if (tsQuery.isEmpty()) {
+            return List.of();
+        }
+        return noteRepository.searchRankedIds(ownerId, tsQuery, limit);
+    }
+
+    @Override
+    public Optional<Set<Long>> substringCandidates(Long ownerId, String fragment, boolean searchInContent) {
+        // LIKE '%fragment%' on lower(title)/lower(content) is served by the pg_trgm GIN indexes (V7)
+        return Optional.empty();
+    }
+
+    @Override
+    public void index(NoteSearchDocument document) {
+        // search_vector is a generated column
+    }
+
+    @Override
+    public void remove(Long ownerId, Long noteId) {
+        // search_vector is a generated column
+    }
+
+    /**
+     * Builds a prefix-matching AND query; title-only searches are restricted to weight A lexemes.
+     * Tokens contain only letters and digits, so they cannot inject tsquery operators.
+     */
+    static String toTsQuery(String query, boolean searchInContent) {
+        String suffix = searchInContent ? ":*" : ":*A";
+        return NoteTokenizer.tokenize(query).stream()
+                .map(token -> token + suffix)
+                .collect(Collectors.joining(" & "));
+    }
+}
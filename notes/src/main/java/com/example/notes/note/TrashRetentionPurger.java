@@ -0,0 +1,99 @@
+package com.example.notes.note;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Permanently deletes notes that have been in the trash longer than the configured retention.
+ *
+ * Each run walks the {@code (trashed_at, id)} index in small keyset-ordered chunks, one short
+ * transaction per chunk, and stops when its time budget is spent; the next run picks up the rest.
+ */
+@Component
+public class TrashRetentionPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(TrashRetentionPurger.class);
+
+    private final NoteRepository noteRepository;
+    private final NoteBulkDeleter bulkDeleter;
+    private final TransactionTemplate transaction;
+    private final Duration retention;
+    private final int chunkSize;
+    private final Duration timeBudget;
+
+    public TrashRetentionPurger(NoteRepository noteRepository,
+                                NoteBulkDeleter bulkDeleter,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${notes.trash.retention:P30D}") Duration retention,
+                                @Value("${notes.trash.purge.chunk-size:200}") int chunkSize,
+                                @Value("${notes.trash.purge.time-budget:PT20S}") Duration timeBudget) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Trash purge chunk size must be positive");
+        }
+        this.noteRepository = noteRepository;
+        this.bulkDeleter = bulkDeleter;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+        this.timeBudget = timeBudget;
+    }
+
+    @Scheduled(initialDelayString = "${notes.trash.purge.initial-delay-ms:60000}",
+            fixedDelayString = "${notes.trash.purge.interval-ms:3600000}")
+    public void scheduledPurge() {
+        if (retention.isZero() || retention.isNegative()) {
+            return;
+        }
+        int deleted = purge(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} notes trashed for longer than {}", deleted, retention);
+        }
+    }
+
+    /**
+     * Deletes notes trashed before {@code cutoff} until none are left or the time budget runs out.
+     *
+     * @return number of notes deleted
+     */
+    public int purge(Instant cutoff) {
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        Instant afterTrashedAt = Instant.EPOCH;
+        long afterId = 0;
+        int total = 0;
+
+        while (System.nanoTime() < deadline) {
+            List<TrashedNoteRef> chunk = noteRepository.findExpiredTrash(cutoff, afterTrashedAt, afterId, Limit.of(chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            Map<Long, List<Long>> byOwner = chunk.stream().collect(Collectors.groupingBy(
+                    TrashedNoteRef::ownerId, LinkedHashMap::new,
+                    Collectors.mapping(TrashedNoteRef::id, Collectors.toList())));
+            Integer deleted = transaction.execute(status -> byOwner.entrySet().stream()
+                    .mapToInt(entry -> bulkDeleter.deleteTrashedBefore(entry.getKey(), entry.getValue(), cutoff).deleted())
+                    .sum());
+            total += deleted == null ? 0 : deleted;
+
+            TrashedNoteRef last = chunk.get(chunk.size() - 1);
+            afterTrashedAt = last.trashedAt();
+            afterId = last.id();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.notes.note;
+
+import java.time.Instant;
+
+/**
+ * Keyset position and owner of a trashed note, as scanned by the retention purger.
+ */
+public record TrashedNoteRef(Long id, Long ownerId, Instant trashedAt) {
+}
@@ -0,0 +1,90 @@
+package com.example.notes.note;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory trigram index used to narrow substring searches, mirroring pg_trgm on PostgreSQL.
+ *
+ * Text is lowercased and padded with two trailing spaces so every fragment shorter than three
+ * characters is still the prefix of some indexed trigram. Lookups return candidates only;
+ * the caller must verify the actual substring match. Not thread-safe.
+ */
+final class TrigramIndex {
+
+    private static final String PADDING = "  ";
+
+    private final TreeMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> documents = new HashMap<>();
+
+    void put(Long noteId, String text) {
+        remove(noteId);
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        Set<String> trigrams = trigrams(normalize(text) + PADDING);
+        trigrams.forEach(trigram -> postings.computeIfAbsent(trigram, t -> new HashSet<>()).add(noteId));
+        documents.put(noteId, trigrams);
+    }
+
+    void remove(Long noteId) {
+        Set<String> trigrams = documents.remove(noteId);
+        if (trigrams == null) {
+            return;
+        }
+        trigrams.forEach(trigram -> {
+            Set<Long> posting = postings.get(trigram);
+            posting.remove(noteId);
+            if (posting.isEmpty()) {
+                postings.remove(trigram);
+            }
+        });
+    }
+
+    /**
+     * Adds the ids of notes that may contain the fragment to {@code into}.
+     */
+    void candidates(String fragment, Set<Long> into) {
+        String normalized = normalize(fragment);
+        if (normalized.isEmpty()) {
+            into.addAll(documents.keySet());
+            return;
+        }
+        if (normalized.length() < 3) {
+            postings.subMap(normalized, normalized + Character.MAX_VALUE).values().forEach(into::addAll);
+            return;
+        }
+        Set<Long> result = null;
+        for (String trigram : trigrams(normalized)) {
+            Set<Long> posting = postings.get(trigram);
+            if (posting == null) {
+                return;
+            }
+            if (result == null) {
+                result = new HashSet<>(posting);
+            } else {
+                result.retainAll(posting);
+            }
+            if (result.isEmpty()) {
+                return;
+            }
+        }
+        into.addAll(result);
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.notes.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Single-instance {@link RateLimitStore}: a token bucket implemented as GCRA (generic cell rate algorithm).
+ *
+ * Each key's whole state is one long, its theoretical arrival time (TAT), updated with CAS;
+ * a request is allowed while it would not push the TAT more than {@code burst} intervals
+ * past now. A key whose TAT is in the past has a full bucket and can be dropped without
+ * changing any decision, which is what the sweeper does.
+ *
+ * Memory is bounded by {@code maxKeys}: when the table is full (e.g. an attacker spraying
+ * source addresses) new keys share one overflow bucket per policy until the sweeper frees space.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryRateLimitStore.class);
+
+    private static final String OVERFLOW_KEY = "~overflow";
+    private static final long MIN_SWEEP_GAP_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    private final AtomicLong lastSweep;
+
+    public InMemoryRateLimitStore(int maxKeys) {
+        this(maxKeys, System::nanoTime);
+    }
+
+    InMemoryRateLimitStore(int maxKeys, LongSupplier nanoClock) {
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("Rate limiter max keys must be positive");
+        }
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        this.lastSweep = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    @Override
+    public RateLimitDecision acquire(String key, RateLimitPolicy policy) {
+        long now = nanoClock.getAsLong();
+        long interval = policy.emissionIntervalNanos();
+        long tolerance = policy.toleranceNanos();
+        AtomicLong tat = bucket(policy.name() + ":" + key, policy, now);
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - tolerance - now;
+            if (wait > 0) {
+                return new RateLimitDecision(false, policy.limit(), 0, wait, Math.max(0, current - now));
+            }
+            if (tat.compareAndSet(current, next)) {
+                long remaining = (tolerance - (next - now)) / interval;
+                return new RateLimitDecision(true, policy.limit(), remaining, 0, next - now);
+            }
+        }
+    }
+
+    /**
+     * Drops keys whose bucket has refilled completely.
+     */
+    @Scheduled(fixedDelayString = "${security.rate-limit.sweep-interval-ms:30000}")
+    public void sweep() {
+        sweep(nanoClock.getAsLong());
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private void sweep(long now) {
+        lastSweep.set(now);
+        int before = buckets.size();
+        // A request racing with the removal may update a bucket that is already gone; that loses at most its own cost
+        buckets.values().removeIf(tat -> tat.get() - now <= 0);
+        log.debug("Rate limit sweep removed {} idle keys", before - buckets.size());
+    }
+
+    private AtomicLong bucket(String key, RateLimitPolicy policy, long now) {
+        AtomicLong existing = buckets.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (buckets.size() >= maxKeys) {
+            long last = lastSweep.get();
+            if (now - last >= MIN_SWEEP_GAP_NANOS && lastSweep.compareAndSet(last, now)) {
+                sweep(now);
+            }
+            if (buckets.size() >= maxKeys) {
+                return buckets.computeIfAbsent(policy.name() + ":" + OVERFLOW_KEY, k -> new AtomicLong(now));
+            }
+        }
+        // A new bucket starts full: TAT == now
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.notes.security;
+
+import com.example.notes.common.Transactions;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Single-instance stand-in for the PostgreSQL channel (H2, tests): delivers to local listeners after commit.
+ */
+public class InProcessRevocationChannel implements RevocationChannel {
+
+    private final List<RevocationListener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String jti) {
+        Transactions.afterCommit(() -> deliver(jti));
+    }
+
+    @Override
+    public void subscribe(RevocationListener listener) {
+        listeners.add(listener);
+    }
+
+    private void deliver(String jti) {
+        listeners.forEach(listener -> listener.revoked(jti));
+    }
+}
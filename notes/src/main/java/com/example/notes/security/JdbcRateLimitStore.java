@@ -0,0 +1,267 @@
+package com.example.notes.security;
+
+import com.example.notes.common.Databases;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cluster-wide {@link RateLimitStore} backed by the {@code rate_limit_counters} table.
+ *
+ * Requests are counted per fixed window and limited with the sliding-window estimate
+ * {@code previous * (1 - elapsed) + current}, so boundaries do not allow double bursts.
+ * Decisions are made locally: each instance adds its own unflushed requests to the totals
+ * last read from the database. Every flush writes the accumulated increments in one batch
+ * and reads back the totals for the buckets used since the previous flush, so instances see
+ * each other's traffic within one flush interval and the database takes no write per request.
+ * Idle buckets are not read back; they age out of the tracked set once their windows expire.
+ * Bursts are not modelled; the policy limit applies per period.
+ */
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcRateLimitStore.class);
+
+    private static final String OVERFLOW_KEY = "~overflow";
+    private static final int REFRESH_CHUNK_SIZE = 500;
+
+    private record WindowKey(String bucket, long windowStart) {}
+
+    private static final class Window {
+        final long expiresAt;
+        // Local requests not yet written, and written ones not yet reflected in {@code global}
+        final AtomicLong pending = new AtomicLong();
+        final AtomicLong flushing = new AtomicLong();
+        volatile long global;
+
+        Window(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        long total() {
+            return global + flushing.get() + pending.get();
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final boolean postgres;
+    private final int maxKeys;
+    private final Clock clock;
+    private final ConcurrentHashMap<WindowKey, Window> windows = new ConcurrentHashMap<>();
+    // Buckets evaluated since the last refresh
+    private final Set<String> used = ConcurrentHashMap.newKeySet();
+
+    public JdbcRateLimitStore(DataSource dataSource, int maxKeys) {
+        this(dataSource, maxKeys, Clock.systemUTC());
+    }
+
+    JdbcRateLimitStore(DataSource dataSource, int maxKeys, Clock clock) {
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("Rate limiter max keys must be positive");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.postgres = Databases.isPostgres(dataSource);
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    @Override
+    public RateLimitDecision acquire(String key, RateLimitPolicy policy) {
+        long now = clock.millis();
+        long period = policy.period().toMillis();
+        long start = now - Math.floorMod(now, period);
+        String bucket = policy.name() + ":" + key;
+        if (windows.size() >= maxKeys && !windows.containsKey(new WindowKey(bucket, start))) {
+            bucket = policy.name() + ":" + OVERFLOW_KEY;
+        }
+        Window current = windows.computeIfAbsent(new WindowKey(bucket, start), k -> new Window(start + 2 * period));
+        used.add(bucket);
+        Window previous = windows.get(new WindowKey(bucket, start - period));
+        long previousCount = previous == null ? 0 : previous.total();
+        double remainingWeight = 1 - (double) (now - start) / period;
+
+        long count = current.pending.incrementAndGet() + current.global + current.flushing.get();
+        double estimate = previousCount * remainingWeight + count;
+        long resetNanos = TimeUnit.MILLISECONDS.toNanos(start + period - now);
+        if (estimate > policy.limit()) {
+            current.pending.decrementAndGet();
+            long wait = retryAfterMillis(policy.limit(), count - 1, previousCount, now, start, period);
+            return new RateLimitDecision(false, policy.limit(), 0, TimeUnit.MILLISECONDS.toNanos(wait), resetNanos);
+        }
+        long remaining = (long) Math.max(0, policy.limit() - estimate);
+        return new RateLimitDecision(true, policy.limit(), remaining, 0, resetNanos);
+    }
+
+    /**
+     * Writes local increments and refreshes the cluster-wide totals of the buckets used since the last flush.
+     */
+    @Scheduled(fixedDelayString = "${security.rate-limit.jdbc.flush-interval-ms:200}")
+    public synchronized void flush() {
+        Map<WindowKey, Long> deltas = new HashMap<>();
+        windows.forEach((key, window) -> {
+            long delta = window.pending.getAndSet(0);
+            if (delta > 0) {
+                window.flushing.addAndGet(delta);
+                deltas.put(key, delta);
+            }
+        });
+        try {
+            write(deltas);
+        } catch (DataAccessException e) {
+            log.warn("Could not flush rate limit counters, keeping them local: {}", e.getMessage());
+            deltas.forEach((key, delta) -> {
+                Window window = windows.get(key);
+                window.flushing.addAndGet(-delta);
+                window.pending.addAndGet(delta);
+            });
+            return;
+        }
+        try {
+            refresh();
+            deltas.forEach((key, delta) -> windows.get(key).flushing.addAndGet(-delta));
+        } catch (DataAccessException e) {
+            log.warn("Could not refresh rate limit counters: {}", e.getMessage());
+            deltas.forEach((key, delta) -> {
+                Window window = windows.get(key);
+                window.global += delta;
+                window.flushing.addAndGet(-delta);
+            });
+        }
+        evictExpired(clock.millis());
+    }
+
+    @Scheduled(fixedDelayString = "${security.rate-limit.jdbc.cleanup-interval-ms:60000}")
+    public void deleteExpiredCounters() {
+        int deleted = jdbcTemplate.update("delete from rate_limit_counters where expires_at < ?", clock.millis());
+        log.debug("Deleted {} expired rate limit counters", deleted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Could not flush rate limit counters on shutdown: {}", e.getMessage());
+        }
+    }
+
+    private void write(Map<WindowKey, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> rows.add(new Object[]{delta, key.bucket(), key.windowStart()}));
+        if (postgres) {
+            jdbcTemplate.batchUpdate("""
+                    insert into rate_limit_counters (request_count, bucket_key, window_start, expires_at)
+                    values (?, ?, ?, ?)
+                    on conflict (bucket_key, window_start)
+                    do update set request_count = rate_limit_counters.request_count + excluded.request_count
+                    """, withExpiry(rows));
+            return;
+        }
+        int[] updated = jdbcTemplate.batchUpdate(
+                "update rate_limit_counters set request_count = request_count + ? where bucket_key = ? and window_start = ?",
+                rows);
+        for (int i = 0; i < rows.size(); i++) {
+            if (updated[i] == 0) {
+                insertOrAdd(rows.get(i));
+            }
+        }
+    }
+
+    private void insertOrAdd(Object[] row) {
+        try {
+            jdbcTemplate.update(
+                    "insert into rate_limit_counters (request_count, bucket_key, window_start, expires_at) values (?, ?, ?, ?)",
+                    row[0], row[1], row[2], expiresAt(row));
+        } catch (DuplicateKeyException e) {
+            // Another instance created the row first
+            jdbcTemplate.update(
+                    "update rate_limit_counters set request_count = request_count + ? where bucket_key = ? and window_start = ?",
+                    row);
+        }
+    }
+
+    private List<Object[]> withExpiry(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> new Object[]{row[0], row[1], row[2], expiresAt(row)})
+                .toList();
+    }
+
+    private long expiresAt(Object[] row) {
+        return windows.get(new WindowKey((String) row[1], (Long) row[2])).expiresAt;
+    }
+
+    private void refresh() {
+        List<String> buckets = new ArrayList<>();
+        // Draining through the iterator keeps buckets used meanwhile for the next refresh
+        for (Iterator<String> it = used.iterator(); it.hasNext(); ) {
+            buckets.add(it.next());
+            it.remove();
+        }
+        try {
+            refresh(buckets);
+        } catch (DataAccessException e) {
+            used.addAll(buckets);
+            throw e;
+        }
+    }
+
+    private void refresh(List<String> buckets) {
+        long now = clock.millis();
+        for (int from = 0; from < buckets.size(); from += REFRESH_CHUNK_SIZE) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("buckets", buckets.subList(from, Math.min(from + REFRESH_CHUNK_SIZE, buckets.size())))
+                    .addValue("now", now);
+            namedJdbcTemplate.query("""
+                    select bucket_key, window_start, request_count, expires_at from rate_limit_counters
+                    where bucket_key in (:buckets) and expires_at > :now
+                    """, params, rs -> {
+                long expiresAt = rs.getLong("expires_at");
+                // Windows started elsewhere still count as the previous window here
+                Window window = windows.computeIfAbsent(
+                        new WindowKey(rs.getString("bucket_key"), rs.getLong("window_start")),
+                        k -> new Window(expiresAt));
+                window.global = rs.getLong("request_count");
+            });
+        }
+    }
+
+    private void evictExpired(long now) {
+        windows.entrySet().removeIf(entry -> {
+            Window window = entry.getValue();
+            return window.expiresAt <= now && window.pending.get() == 0 && window.flushing.get() == 0;
+        });
+    }
+
+    private static long retryAfterMillis(int limit, long count, long previousCount, long now, long start, long period) {
+        long nextWindow = start + period - now;
+        if (count + 1 > limit || previousCount == 0) {
+            return Math.max(1, nextWindow);
+        }
+        // Wait until the previous window's weight has decayed enough for one more request
+        double requiredElapsed = 1 - (double) (limit - count - 1) / previousCount;
+        long wait = (long) Math.ceil(start + requiredElapsed * period - now);
+        return Math.max(1, Math.min(wait, nextWindow));
+    }
+}
@@ -39,9 +39,10 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain chain) throws ServletException, IOException {
         String token = resolveToken(request);
-        if (token != null && jwtService.isValid(token) && !tokenBlacklistService.isBlacklisted(token)) {
-            String username = jwtService.extractUsername(token);
-            AppUserDetails userDetails = userService.loadUserByUsername(username);
+        // One verification per request; repeated tokens are served from the JwtService cache
+        JwtClaims claims = token == null ? null : jwtService.parse(token).orElse(null);
+        if (claims != null && !tokenBlacklistService.isBlacklisted(claims)) {
+            AppUserDetails userDetails = userService.loadPrincipal(claims.username());
 
             UsernamePasswordAuthenticationToken auth =
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
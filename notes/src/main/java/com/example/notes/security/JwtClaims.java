@@ -0,0 +1,9 @@
+package com.example.notes.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiry have been verified.
+ */
+public record JwtClaims(String tokenId, String username, Instant issuedAt, Instant expiresAt) {
+}
@@ -1,17 +1,23 @@
 package com.example.notes.security;
 
+import com.example.notes.common.BoundedExpiringCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import io.jsonwebtoken.SignatureAlgorithm;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -20,17 +26,30 @@ import java.util.UUID;
  * JWT contains minimal claims (only username) to keep token size small.
  * This ensures token size stays well below HTTP header limits (~8KB).
  * Additional user data should be fetched from /api/auth/me endpoint if needed.
+ *
+ * Verified claims are cached by SHA-256 of the token until the token expires, so a client
+ * reusing its token pays for signature verification and JSON parsing only once.
  */
 @Component
 public class JwtService {
     private static final Logger log = LoggerFactory.getLogger(JwtService.class);
 
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
+
     private final Key key;
     private final long expirationMs;
+    private final JwtParser parser;
+    private final BoundedExpiringCache<String, JwtClaims> verified;
+
+    public JwtService(String secret, long expirationMs) {
+        this(secret, expirationMs, DEFAULT_CACHE_SIZE);
+    }
 
+    @Autowired
     public JwtService(
             @Value("${security.jwt.secret}") String secret,
-            @Value("${security.jwt.expiration-ms}") long expirationMs
+            @Value("${security.jwt.expiration-ms}") long expirationMs,
+            @Value("${security.jwt.cache-size:" + DEFAULT_CACHE_SIZE + "}") int cacheSize
     ) {
         if (!StringUtils.hasText(secret)) {
             throw new IllegalStateException("JWT secret is not configured.");
@@ -41,6 +60,11 @@ public class JwtService {
         }
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationMs = expirationMs;
+        // Parsers are immutable and thread-safe; building one per call is wasted work
+        this.parser = Jwts.parser()
+                .setSigningKey(key)
+                .build();
+        this.verified = new BoundedExpiringCache<>(cacheSize);
         log.debug("JWT key initialized successfully (HS256)");
     }
 
@@ -66,43 +90,73 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns its claims, or empty if the token is invalid or expired.
+     */
+    public Optional<JwtClaims> parse(String token) {
+        try {
+            return Optional.of(verify(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Invalid JWT token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     /**
      * Extract username from JWT token.
      */
     public String extractUsername(String token) {
-        return parseClaims(token).getBody().getSubject();
+        return verify(token).username();
     }
 
     public String extractTokenId(String token) {
-        return parseClaims(token).getBody().getId();
+        return verify(token).tokenId();
     }
 
     public Instant extractExpiration(String token) {
-        return parseClaims(token).getBody().getExpiration().toInstant();
+        return verify(token).expiresAt();
     }
 
     /**
      * Validate JWT token signature and expiration.
      */
     public boolean isValid(String token) {
-        try {
-            parseClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            log.debug("Invalid JWT token: {}", e.getMessage());
-            return false;
-        }
+        return parse(token).isPresent();
     }
 
     /**
-     * Parse and validate JWT claims.
+     * Returns verified claims from the cache or by parsing the token.
      * Throws exception if token is invalid or expired.
      */
-    private Jws<Claims> parseClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
+    private JwtClaims verify(String token) {
+        if (!StringUtils.hasText(token)) {
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+        String cacheKey = sha256(token);
+        JwtClaims cached = verified.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        Claims body = parser.parseClaimsJws(token).getBody();
+        JwtClaims claims = new JwtClaims(
+                body.getId(),
+                body.getSubject(),
+                body.getIssuedAt() == null ? null : body.getIssuedAt().toInstant(),
+                body.getExpiration() == null ? null : body.getExpiration().toInstant()
+        );
+        // Tokens without an expiry are still accepted, just never cached
+        if (claims.expiresAt() != null) {
+            verified.put(cacheKey, claims, claims.expiresAt());
+        }
+        return claims;
     }
-}
 
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.notes.security;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Revocation channel over PostgreSQL LISTEN/NOTIFY.
+ *
+ * {@link #publish} issues {@code pg_notify} on the caller's transactional connection, so the
+ * event is sent exactly when the revocation commits. A background thread holds one pooled
+ * connection LISTENing on the channel; after every (re)connect listeners are asked to resync,
+ * since notifications sent while disconnected are lost.
+ */
+public class PostgresRevocationChannel implements RevocationChannel, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresRevocationChannel.class);
+
+    static final String CHANNEL = "token_revoked";
+    private static final int POLL_TIMEOUT_MS = 5_000;
+    private static final long INITIAL_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final List<RevocationListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public PostgresRevocationChannel(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void publish(String jti) {
+        jdbcTemplate.query("select pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null, CHANNEL, jti);
+    }
+
+    @Override
+    public void subscribe(RevocationListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listen, "token-revocation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        long backoff = INITIAL_BACKOFF_MS;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                backoff = INITIAL_BACKOFF_MS;
+                listeners.forEach(RevocationListener::resync);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        listeners.forEach(listener -> listener.revoked(notification.getParameter()));
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Token revocation listener disconnected, retrying in {} ms: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+}
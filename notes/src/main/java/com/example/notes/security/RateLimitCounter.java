@@ -0,0 +1,53 @@
+package com.example.notes.security;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Requests counted cluster-wide for one bucket in one fixed window; written by {@link JdbcRateLimitStore}.
+ */
+@Entity
+@Table(name = "rate_limit_counters", indexes = @Index(name = "idx_rate_limit_counters_expires_at", columnList = "expires_at"))
+@IdClass(RateLimitCounter.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RateLimitCounter {
+
+    @Id
+    @Column(name = "bucket_key", nullable = false, length = 255)
+    private String bucketKey;
+
+    /**
+     * Window start in epoch milliseconds.
+     */
+    @Id
+    @Column(name = "window_start", nullable = false)
+    private long windowStart;
+
+    @Column(name = "request_count", nullable = false)
+    private long requestCount;
+
+    /**
+     * Epoch milliseconds after which the window no longer affects any decision.
+     */
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+
+    /**
+     * Composite key (bucket_key, window_start).
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String bucketKey;
+        private long windowStart;
+    }
+}
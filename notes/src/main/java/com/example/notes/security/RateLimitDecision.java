@@ -0,0 +1,11 @@
+package com.example.notes.security;
+
+/**
+ * Outcome of one rate limit check.
+ *
+ * @param remaining     requests that could still be made right now
+ * @param retryAfterNanos time until the next request would be allowed (0 when allowed)
+ * @param resetNanos    time until the bucket is full again
+ */
+public record RateLimitDecision(boolean allowed, int limit, long remaining, long retryAfterNanos, long resetNanos) {
+}
@@ -0,0 +1,33 @@
+package com.example.notes.security;
+
+import java.time.Duration;
+
+/**
+ * A named rate: {@code limit} requests per {@code period}, of which up to {@code burst} may arrive back to back.
+ * The name identifies the bucket, so routes sharing a policy name share one budget per client.
+ */
+public record RateLimitPolicy(String name, int limit, Duration period, int burst) {
+
+    public RateLimitPolicy {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Rate limit policy name is required");
+        }
+        if (limit <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate limit policy '" + name + "' needs a positive limit and burst");
+        }
+        if (period == null || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Rate limit policy '" + name + "' needs a positive period");
+        }
+    }
+
+    /**
+     * Time one request "costs" in the bucket.
+     */
+    long emissionIntervalNanos() {
+        return Math.max(1, period.toNanos() / limit);
+    }
+
+    long toleranceNanos() {
+        return emissionIntervalNanos() * burst;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.notes.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Rate limit policies bound from {@code security.rate-limit}.
+ *
+ * Requests pass two stages: every request is limited per client IP before authentication, then
+ * authenticated requests are limited per user. In each stage the first route matching a request
+ * decides its policy ({@code ipRoutes} before authentication, {@code routes} after it); everything
+ * else uses {@code ipPolicy} or the default policy.
+ *
+ * @param store {@code memory} (per instance) or {@code jdbc} (shared through the database)
+ */
+@ConfigurationProperties("security.rate-limit")
+public record RateLimitProperties(@DefaultValue("memory") String store,
+                                  @DefaultValue("100000") int maxKeys,
+                                  Policy ipPolicy,
+                                  @DefaultValue Policy defaultPolicy,
+                                  List<Route> routes,
+                                  List<Route> ipRoutes) {
+
+    public RateLimitProperties {
+        if (ipPolicy == null) {
+            // Several users may share an address, so the IP budget is wider than the per-user one
+            ipPolicy = new Policy(300, Duration.ofMinutes(1), null);
+        }
+        if (routes == null) {
+            routes = List.of(
+                    new Route("search", List.of("/api/notes"), null, "q", 20, Duration.ofMinutes(1), null),
+                    new Route("batch", List.of("/api/notes/batch/**"), null, null, 20, Duration.ofMinutes(1), null));
+        }
+        if (ipRoutes == null) {
+            // Login and registration are anonymous, so only the IP stage can hold them to a tighter budget
+            ipRoutes = List.of(new Route("auth", List.of("/api/auth/**"), null, null, 100, Duration.ofMinutes(1), null));
+        }
+    }
+
+    public record Policy(@DefaultValue("100") int limit,
+                        @DefaultValue("PT1M") Duration period,
+                        Integer burst) {
+
+        RateLimitPolicy toPolicy(String name) {
+            return new RateLimitPolicy(name, limit, period, burst != null ? burst : limit);
+        }
+    }
+
+    /**
+     * @param paths      Ant-style path patterns
+     * @param method     HTTP method to match, any when unset
+     * @param queryParam only match requests carrying this parameter, when set
+     * @param burst      defaults to {@code limit}
+     */
+    public record Route(String name,
+                        List<String> paths,
+                        String method,
+                        String queryParam,
+                        int limit,
+                        @DefaultValue("PT1M") Duration period,
+                        Integer burst) {
+
+        RateLimitPolicy toPolicy() {
+            return new RateLimitPolicy(name, limit, period, burst != null ? burst : limit);
+        }
+    }
+}
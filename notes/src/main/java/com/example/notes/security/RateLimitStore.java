@@ -0,0 +1,12 @@
+package com.example.notes.security;
+
+/**
+ * Holds rate limit state per client key and policy.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Counts one request for the key against the policy, unless it is over the limit.
+     */
+    RateLimitDecision acquire(String key, RateLimitPolicy policy);
+}
@@ -1,71 +1,146 @@
 package com.example.notes.security;
 
+import com.example.notes.web.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Simple in-memory rate limiting for API requests.
- * This is a quick MVP-level protection; production should use Redis or distributed bucket support.
+ * Rate limiting for API requests, in one of two stages.
+ *
+ * The {@link Stage#IP} instance runs before JWT authentication so floods are shed before any token
+ * parsing or user lookup, and holds anonymous endpoints such as login to their IP routes; the
+ * {@link Stage#USER} instance runs after it and applies the per-route policies to authenticated users. Both report {@code RateLimit-Limit}, {@code RateLimit-Remaining}
+ * and {@code RateLimit-Reset} (seconds) for the tighter of the two limits, and answer 429 with
+ * {@code Retry-After} directly. Limit state lives in a {@link RateLimitStore}; policies come from
+ * {@link RateLimitProperties}.
  */
 public class RateLimitingFilter extends OncePerRequestFilter {
 
-    private static final int DEFAULT_LIMIT = 100;
-    private static final int EXPENSIVE_LIMIT = 20;
-    private static final long WINDOW_MS = 60_000L;
+    public enum Stage { IP, USER }
 
-    private record Window(int count, long resetAt) {}
+    static final String LIMIT_HEADER = "RateLimit-Limit";
+    static final String REMAINING_HEADER = "RateLimit-Remaining";
+    static final String RESET_HEADER = "RateLimit-Reset";
 
-    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
-    private final Set<String> expensivePaths = Set.of("/api/notes/batch", "/api/notes");
+    private static final String REMAINING_ATTRIBUTE = RateLimitingFilter.class.getName() + ".remaining";
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private record RoutePolicy(RateLimitProperties.Route route, RateLimitPolicy policy) {
+
+        boolean matches(HttpServletRequest request) {
+            if (StringUtils.hasText(route.method()) && !route.method().equalsIgnoreCase(request.getMethod())) {
+                return false;
+            }
+            if (StringUtils.hasText(route.queryParam()) && request.getParameter(route.queryParam()) == null) {
+                return false;
+            }
+            String uri = request.getRequestURI();
+            return route.paths() != null && route.paths().stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, uri));
+        }
+    }
+
+    private final Stage stage;
+    private final RateLimitStore store;
+    private final ObjectMapper objectMapper;
+    private final RateLimitPolicy defaultPolicy;
+    private final List<RoutePolicy> routes;
+
+    public RateLimitingFilter(Stage stage, RateLimitStore store, RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.stage = stage;
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.defaultPolicy = stage == Stage.IP
+                ? properties.ipPolicy().toPolicy("ip")
+                : properties.defaultPolicy().toPolicy("default");
+        this.routes = (stage == Stage.IP ? properties.ipRoutes() : properties.routes()).stream()
+                .map(route -> new RoutePolicy(route, route.toPolicy()))
+                .toList();
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         String key = extractKey(request);
-        int limit = determineLimit(request);
-        if (!isAllowed(key, limit)) {
-            throw new RateLimitExceededException("Rate limit exceeded. Try again later.");
+        if (key == null) {
+            // Anonymous requests are covered by the IP stage
+            filterChain.doFilter(request, response);
+            return;
         }
+        RateLimitDecision decision = store.acquire(key, resolvePolicy(request));
+        if (!decision.allowed()) {
+            reject(response, decision);
+            return;
+        }
+        writeHeaders(request, response, decision);
         filterChain.doFilter(request, response);
     }
 
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return super.getAlreadyFilteredAttributeName() + "." + stage;
+    }
+
     private String extractKey(HttpServletRequest request) {
+        if (stage == Stage.IP) {
+            return "ip:" + request.getRemoteAddr();
+        }
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth != null && auth.isAuthenticated() && auth.getName() != null) {
             return "user:" + auth.getName();
         }
-        return "ip:" + request.getRemoteAddr();
+        return null;
     }
 
-    private int determineLimit(HttpServletRequest request) {
-        String uri = request.getRequestURI();
-        if (uri.startsWith("/api/notes/batch") || (uri.equals("/api/notes") && request.getParameter("q") != null)) {
-            return EXPENSIVE_LIMIT;
+    private RateLimitPolicy resolvePolicy(HttpServletRequest request) {
+        for (RoutePolicy route : routes) {
+            if (route.matches(request)) {
+                return route.policy();
+            }
         }
-        return DEFAULT_LIMIT;
+        return defaultPolicy;
     }
 
-    private boolean isAllowed(String key, int limit) {
-        long now = System.currentTimeMillis();
-        Window updated = windows.compute(key, (k, current) -> {
-            if (current == null || now >= current.resetAt) {
-                return new Window(1, now + WINDOW_MS);
-            }
-            if (current.count >= limit) {
-                return current;
-            }
-            return new Window(current.count + 1, current.resetAt);
-        });
-        return updated.count <= limit;
+    private static void writeHeaders(HttpServletRequest request, HttpServletResponse response, RateLimitDecision decision) {
+        // Report whichever stage leaves the client less room
+        Object previous = request.getAttribute(REMAINING_ATTRIBUTE);
+        if (previous instanceof Long remaining && remaining < decision.remaining()) {
+            return;
+        }
+        request.setAttribute(REMAINING_ATTRIBUTE, decision.remaining());
+        response.setHeader(LIMIT_HEADER, String.valueOf(decision.limit()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        response.setHeader(RESET_HEADER, String.valueOf(toSeconds(decision.resetNanos())));
+    }
+
+    private void reject(HttpServletResponse response, RateLimitDecision decision) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(LIMIT_HEADER, String.valueOf(decision.limit()));
+        response.setHeader(REMAINING_HEADER, "0");
+        response.setHeader(RESET_HEADER, String.valueOf(toSeconds(decision.resetNanos())));
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, toSeconds(decision.retryAfterNanos()))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        var body = ApiResponse.fail(new ApiResponse.ApiError("rate_limited", "Rate limit exceeded. Try again later."));
+        response.getWriter().write(objectMapper.writeValueAsString(body));
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
     }
 }
@@ -0,0 +1,14 @@
+package com.example.notes.security;
+
+/**
+ * Broadcasts revoked JWT ids to every application instance so local revocation caches stay correct.
+ */
+public interface RevocationChannel {
+
+    /**
+     * Publishes a revoked JTI. Delivery happens only if the current transaction commits.
+     */
+    void publish(String jti);
+
+    void subscribe(RevocationListener listener);
+}
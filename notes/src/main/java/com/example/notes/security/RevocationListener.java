@@ -0,0 +1,14 @@
+package com.example.notes.security;
+
+/**
+ * Receives token revocations published by any instance of the application.
+ */
+public interface RevocationListener {
+
+    void revoked(String jti);
+
+    /**
+     * Revocations may have been missed (e.g. the channel reconnected); reload them from the database.
+     */
+    void resync();
+}
@@ -4,6 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -13,6 +14,12 @@ public interface TokenBlacklistRepository extends JpaRepository<TokenBlacklistEn
 
     Optional<TokenBlacklistEntry> findByJti(String jti);
 
+    long countByExpiresAtAfter(Instant now);
+
+    // Tokens are short-lived, so the active blacklist stays small enough to load in one go
+    @Query("SELECT t.jti FROM TokenBlacklistEntry t WHERE t.expiresAt > ?1")
+    List<String> findActiveJtis(Instant now);
+
     @Modifying
     @Query("DELETE FROM TokenBlacklistEntry t WHERE t.expiresAt < ?1")
     void deleteExpiredBefore(Instant cutoff);
@@ -1,60 +1,164 @@
 package com.example.notes.security;
 
-import jakarta.servlet.http.HttpServletRequest;
+import com.example.notes.common.Transactions;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.Instant;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.List;
 
 /**
  * Manages invalidated tokens so logout and compromise events can revoke issued JWTs.
+ *
+ * Revocation checks are fronted by a Bloom filter over the active blacklisted JTIs: almost no
+ * tokens are revoked, so the common case is answered in memory and the database is queried only
+ * on a probable hit. Until the filter has been loaded at startup every check goes to the database.
+ * New revocations are broadcast over the {@link RevocationChannel} so every instance adds them
+ * to its own filter; a channel resync reloads the filter from the database.
  */
 @Service
 @Transactional
 public class TokenBlacklistService {
 
+    private static final Logger log = LoggerFactory.getLogger(TokenBlacklistService.class);
+
+    private static final long MIN_FILTER_CAPACITY = 10_000;
+    private static final double FILTER_FALSE_POSITIVE_RATE = 0.001;
+
     private final TokenBlacklistRepository repository;
     private final JwtService jwtService;
+    private final RevocationChannel revocationChannel;
 
-    public TokenBlacklistService(TokenBlacklistRepository repository, JwtService jwtService) {
+    // Guards filter swaps against concurrent additions; lookups read the volatile field without locking
+    private final Object filterLock = new Object();
+    private final Object rebuildLock = new Object();
+    private volatile JtiBloomFilter filter;
+    private JtiBloomFilter rebuilding;
+
+    public TokenBlacklistService(TokenBlacklistRepository repository, JwtService jwtService,
+                                 RevocationChannel revocationChannel) {
         this.repository = repository;
         this.jwtService = jwtService;
+        this.revocationChannel = revocationChannel;
+    }
+
+    @PostConstruct
+    void subscribeToRevocations() {
+        revocationChannel.subscribe(new RevocationListener() {
+            @Override
+            public void revoked(String jti) {
+                remember(jti);
+            }
+
+            @Override
+            public void resync() {
+                rebuildFilter();
+            }
+        });
     }
 
     public void blacklistToken(String token) {
-        if (!StringUtils.hasText(token) || !jwtService.isValid(token)) {
+        if (!StringUtils.hasText(token)) {
             return;
         }
-        String jti = jwtService.extractTokenId(token);
-        if (jti == null) {
+        JwtClaims claims = jwtService.parse(token).orElse(null);
+        if (claims == null || claims.tokenId() == null) {
             return;
         }
-        Instant expiresAt = jwtService.extractExpiration(token);
         repository.save(TokenBlacklistEntry.builder()
-                .jti(jti)
+                .jti(claims.tokenId())
                 .createdAt(Instant.now())
-                .expiresAt(expiresAt)
+                .expiresAt(claims.expiresAt())
                 .build());
+        // Other instances learn about the revocation only once it is committed
+        revocationChannel.publish(claims.tokenId());
+        Transactions.afterCommit(() -> remember(claims.tokenId()));
     }
 
-    public boolean isBlacklisted(String token) {
-        if (!StringUtils.hasText(token) || !jwtService.isValid(token)) {
+    /**
+     * Checks revocation for already verified claims, so callers do not parse the token again.
+     * Runs outside a transaction: a filter miss answers without a connection, and a probable hit
+     * is confirmed by the repository's own read-only transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean isBlacklisted(JwtClaims claims) {
+        String jti = claims.tokenId();
+        if (jti == null) {
             return false;
         }
-        String jti = jwtService.extractTokenId(token);
-        if (jti == null) {
+        JtiBloomFilter current = filter;
+        if (current != null && !current.mightContain(jti)) {
             return false;
         }
         return repository.findByJti(jti).isPresent();
     }
 
+    /**
+     * Rebuilds the filter from the active blacklist. JTIs blacklisted while the rebuild runs are
+     * added to both the old and the new filter, so none can be missed by the swap. Rebuilds run
+     * one at a time; otherwise an earlier rebuild could swap in a filter after a later one had
+     * stopped collecting its concurrent additions.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildFilter() {
+        synchronized (rebuildLock) {
+            Instant now = Instant.now();
+            long active = repository.countByExpiresAtAfter(now);
+            JtiBloomFilter next = new JtiBloomFilter(Math.max(MIN_FILTER_CAPACITY, active * 2), FILTER_FALSE_POSITIVE_RATE);
+            synchronized (filterLock) {
+                rebuilding = next;
+            }
+            List<String> jtis;
+            try {
+                jtis = repository.findActiveJtis(now);
+            } catch (RuntimeException e) {
+                synchronized (filterLock) {
+                    rebuilding = null;
+                }
+                throw e;
+            }
+            jtis.forEach(next::add);
+            synchronized (filterLock) {
+                filter = next;
+                rebuilding = null;
+            }
+            log.debug("Token blacklist filter rebuilt with {} active entries", jtis.size());
+        }
+    }
+
     @Scheduled(cron = "0 0 * * * *")
     @Transactional
     public void cleanupExpiredTokens() {
         repository.deleteExpiredBefore(Instant.now());
+        // Bloom filters cannot forget; rebuilding drops the expired JTIs
+        rebuildFilter();
+    }
+
+    private void remember(String jti) {
+        boolean saturated;
+        synchronized (filterLock) {
+            // The first rebuild may already be past its database read, so it has to see the JTI too
+            if (rebuilding != null) {
+                rebuilding.add(jti);
+            }
+            if (filter == null) {
+                // Not loaded yet: lookups go to the database until the first rebuild completes
+                return;
+            }
+            filter.add(jti);
+            saturated = filter.isSaturated() && rebuilding == null;
+        }
+        if (saturated) {
+            rebuildFilter();
+        }
     }
 }
@@ -0,0 +1,7 @@
+package com.example.notes.tag;
+
+/**
+ * One row of {@code note_tags}.
+ */
+public record NoteTagLink(Long noteId, Long tagId) {
+}
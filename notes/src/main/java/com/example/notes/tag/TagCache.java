@@ -0,0 +1,132 @@
+package com.example.notes.tag;
+
+import com.example.notes.common.BoundedExpiringCache;
+import com.example.notes.common.Transactions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Per-owner cache of tags and their note counts, so tag lists and ownership checks do not
+ * query {@code tags} on every call.
+ *
+ * Tags are detached snapshots, loaded as a whole per owner and dropped whenever a tag is created
+ * or deleted. Note counts are loaded on first use and then adjusted after each commit that
+ * links or unlinks a tag; changes the caller cannot attribute to single tags evict the owner.
+ * Changes made by other instances become visible within the TTL.
+ */
+@Component
+public class TagCache {
+
+    private final BoundedExpiringCache<Long, OwnerTags> owners;
+    private final Duration ttl;
+
+    public TagCache(@Value("${notes.tags.cache.max-owners:10000}") int maxOwners,
+                    @Value("${notes.tags.cache.ttl:PT10M}") Duration ttl) {
+        this.owners = new BoundedExpiringCache<>(maxOwners);
+        this.ttl = ttl;
+    }
+
+    /**
+     * Returns the owner's tags by id, in the order the loader returned them.
+     */
+    public Map<Long, Tag> tags(Long ownerId, Function<Long, List<Tag>> loader) {
+        return entry(ownerId, loader).tags;
+    }
+
+    /**
+     * Returns note counts per tag id; tags without notes may be absent.
+     */
+    public Map<Long, Long> noteCounts(Long ownerId, Function<Long, List<Tag>> loader,
+                                      Supplier<List<TagNoteCount>> countLoader) {
+        OwnerTags entry = entry(ownerId, loader);
+        Map<Long, AtomicLong> counts = entry.counts;
+        if (counts == null) {
+            long seen = entry.modifications.get();
+            counts = new ConcurrentHashMap<>();
+            for (TagNoteCount count : countLoader.get()) {
+                counts.put(count.tagId(), new AtomicLong(count.noteCount()));
+            }
+            // An adjustment that committed while counting may or may not be in the result; keep
+            // the counts for this call only and let the next one load them again
+            if (cacheable() && entry.modifications.get() == seen) {
+                entry.counts = counts;
+            }
+        }
+        Map<Long, Long> snapshot = new LinkedHashMap<>();
+        counts.forEach((tagId, count) -> snapshot.put(tagId, Math.max(0, count.get())));
+        return snapshot;
+    }
+
+    /**
+     * Adds {@code delta} to a tag's note count once the current transaction commits.
+     */
+    public void adjustNoteCount(Long ownerId, Long tagId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        Transactions.afterCommit(() -> {
+            OwnerTags entry = owners.get(ownerId);
+            if (entry == null) {
+                return;
+            }
+            entry.modifications.incrementAndGet();
+            Map<Long, AtomicLong> counts = entry.counts;
+            if (counts != null) {
+                counts.computeIfAbsent(tagId, id -> new AtomicLong()).addAndGet(delta);
+            }
+        });
+    }
+
+    public void evict(Long ownerId) {
+        owners.invalidate(ownerId);
+        // A concurrent request may re-cache the old rows before this transaction commits
+        Transactions.afterCompletion(() -> owners.invalidate(ownerId));
+    }
+
+    private OwnerTags entry(Long ownerId, Function<Long, List<Tag>> loader) {
+        OwnerTags cached = owners.get(ownerId);
+        if (cached != null) {
+            return cached;
+        }
+        Map<Long, Tag> tags = new LinkedHashMap<>();
+        loader.apply(ownerId).forEach(tag -> tags.put(tag.getId(), snapshot(tag)));
+        OwnerTags loaded = new OwnerTags(Collections.unmodifiableMap(tags));
+        if (cacheable()) {
+            owners.put(ownerId, loaded, ttl);
+        }
+        return loaded;
+    }
+
+    private boolean cacheable() {
+        return !ttl.isZero() && !ttl.isNegative();
+    }
+
+    private static Tag snapshot(Tag tag) {
+        return Tag.builder()
+                .id(tag.getId())
+                .ownerId(tag.getOwnerId())
+                .name(tag.getName())
+                .build();
+    }
+
+    private static final class OwnerTags {
+        final Map<Long, Tag> tags;
+        // Bumped by every adjustment, so a count load that raced with one is not cached
+        final AtomicLong modifications = new AtomicLong();
+        volatile Map<Long, AtomicLong> counts;
+
+        OwnerTags(Map<Long, Tag> tags) {
+            this.tags = tags;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.notes.tag;
+
+import java.util.List;
+
+/**
+ * Tag criteria for note listings: notes must carry every tag in {@code all}, at least one tag in
+ * {@code any} (when given) and none of the tags in {@code none}.
+ */
+public record TagFilter(List<Long> all, List<Long> any, List<Long> none) {
+
+    public TagFilter {
+        all = all == null ? List.of() : List.copyOf(all);
+        any = any == null ? List.of() : List.copyOf(any);
+        none = none == null ? List.of() : List.copyOf(none);
+    }
+
+    public boolean isEmpty() {
+        return all.isEmpty() && any.isEmpty() && none.isEmpty();
+    }
+
+    /**
+     * Whether the filter selects notes by tags they carry, rather than only excluding some.
+     */
+    public boolean hasInclusions() {
+        return !all.isEmpty() || !any.isEmpty();
+    }
+}
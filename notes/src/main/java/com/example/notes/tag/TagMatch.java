@@ -0,0 +1,10 @@
+package com.example.notes.tag;
+
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+/**
+ * Note ids resolved for a {@link TagFilter}. When the filter has inclusions, {@code notes} holds
+ * exactly the matching ids; otherwise it is null and {@code excludedNotes} holds the ids to leave out.
+ */
+public record TagMatch(Roaring64Bitmap notes, Roaring64Bitmap excludedNotes) {
+}
@@ -0,0 +1,7 @@
+package com.example.notes.tag;
+
+/**
+ * Number of notes linked to a tag, as aggregated from {@code note_tags}.
+ */
+public record TagNoteCount(Long tagId, long noteCount) {
+}
@@ -0,0 +1,215 @@
+package com.example.notes.tag;
+
+import com.example.notes.common.Transactions;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-process index from tag id to a bitmap of the note ids carrying it, per owner.
+ *
+ * Owners are loaded lazily from {@code note_tags} on their first tag-filtered listing and kept
+ * current after each commit that links or unlinks tags, so AND/OR/NOT tag filters become bitmap
+ * operations instead of grouped subqueries. Changes made by other instances are only picked up
+ * when the owner's index is reloaded after the TTL, so the index is off unless
+ * {@code notes.tags.index.enabled} is set for a single-instance deployment; tag filters then
+ * run as SQL.
+ */
+@Component
+public class TagNoteIndex {
+
+    private static final Roaring64Bitmap EMPTY = new Roaring64Bitmap();
+
+    private final TagRepository tagRepository;
+    private final boolean enabled;
+    private final int maxOwners;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ConcurrentHashMap<Long, OwnerIndex> owners = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TagNoteIndex(TagRepository tagRepository,
+                        @Value("${notes.tags.index.enabled:false}") boolean enabled,
+                        @Value("${notes.tags.index.max-owners:10000}") int maxOwners,
+                        @Value("${notes.tags.index.ttl:PT10M}") Duration ttl) {
+        this(tagRepository, enabled, maxOwners, ttl, Clock.systemUTC());
+    }
+
+    TagNoteIndex(TagRepository tagRepository, boolean enabled, int maxOwners, Duration ttl, Clock clock) {
+        if (maxOwners <= 0) {
+            throw new IllegalArgumentException("Tag index max owners must be positive");
+        }
+        this.tagRepository = tagRepository;
+        this.enabled = enabled;
+        this.maxOwners = maxOwners;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Resolves the filter against the owner's bitmaps. The returned bitmaps are private copies.
+     */
+    public TagMatch match(Long ownerId, TagFilter filter) {
+        if (!enabled) {
+            throw new IllegalStateException("Tag note index is disabled");
+        }
+        OwnerIndex index = ownerIndex(ownerId);
+        index.lock.readLock().lock();
+        try {
+            Roaring64Bitmap excluded = index.union(filter.none());
+            if (!filter.hasInclusions()) {
+                return new TagMatch(null, excluded);
+            }
+            Roaring64Bitmap notes = null;
+            for (Long tagId : filter.all()) {
+                Roaring64Bitmap tagged = index.notes(tagId);
+                notes = notes == null ? tagged.clone() : Roaring64Bitmap.and(notes, tagged);
+                if (notes.isEmpty()) {
+                    return new TagMatch(notes, excluded);
+                }
+            }
+            if (!filter.any().isEmpty()) {
+                Roaring64Bitmap union = index.union(filter.any());
+                notes = notes == null ? union : Roaring64Bitmap.and(notes, union);
+            }
+            notes.andNot(excluded);
+            return new TagMatch(notes, excluded);
+        } finally {
+            index.lock.readLock().unlock();
+        }
+    }
+
+    public void linked(Long ownerId, Collection<Long> noteIds, Collection<Long> tagIds) {
+        update(ownerId, index -> tagIds.forEach(tagId -> {
+            Roaring64Bitmap notes = index.tags.computeIfAbsent(tagId, id -> new Roaring64Bitmap());
+            noteIds.forEach(notes::addLong);
+        }));
+    }
+
+    public void unlinked(Long ownerId, Collection<Long> noteIds, Collection<Long> tagIds) {
+        update(ownerId, index -> tagIds.forEach(tagId -> {
+            Roaring64Bitmap notes = index.tags.get(tagId);
+            if (notes != null) {
+                noteIds.forEach(notes::removeLong);
+            }
+        }));
+    }
+
+    public void notesRemoved(Long ownerId, Collection<Long> noteIds) {
+        update(ownerId, index -> index.tags.values().forEach(notes -> noteIds.forEach(notes::removeLong)));
+    }
+
+    public void tagRemoved(Long ownerId, Long tagId) {
+        update(ownerId, index -> index.tags.remove(tagId));
+    }
+
+    private void update(Long ownerId, Consumer<OwnerIndex> change) {
+        if (!enabled) {
+            return;
+        }
+        Transactions.afterCommit(() -> {
+            OwnerIndex index = owners.get(ownerId);
+            // Unloaded owners pick the change up from the database when first filtered
+            if (index == null) {
+                return;
+            }
+            index.lock.writeLock().lock();
+            try {
+                change.accept(index);
+            } finally {
+                index.lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private OwnerIndex ownerIndex(Long ownerId) {
+        OwnerIndex existing = owners.get(ownerId);
+        if (existing != null) {
+            if (!existing.expired(clock.millis())) {
+                return existing;
+            }
+            owners.remove(ownerId, existing);
+        }
+        OwnerIndex created = new OwnerIndex(clock.millis() + ttl.toMillis());
+        // Publish the index while holding the write lock so concurrent updates wait for the initial load
+        created.lock.writeLock().lock();
+        try {
+            existing = owners.putIfAbsent(ownerId, created);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                tagRepository.findNoteTagLinksByOwnerId(ownerId).forEach(created::add);
+                created.tags.values().forEach(Roaring64Bitmap::runOptimize);
+            } catch (RuntimeException e) {
+                owners.remove(ownerId, created);
+                throw e;
+            }
+            makeRoom(ownerId);
+            return created;
+        } finally {
+            created.lock.writeLock().unlock();
+        }
+    }
+
+    private void makeRoom(Long keep) {
+        if (owners.size() <= maxOwners) {
+            return;
+        }
+        long now = clock.millis();
+        owners.values().removeIf(index -> index.expired(now));
+        // Still full: drop about a tenth of the owners; they are reloaded on their next filter
+        int excess = owners.size() - maxOwners + Math.max(1, maxOwners / 10);
+        Iterator<Long> keys = owners.keySet().iterator();
+        while (excess > 0 && keys.hasNext()) {
+            if (!keys.next().equals(keep)) {
+                keys.remove();
+                excess--;
+            }
+        }
+    }
+
+    private static final class OwnerIndex {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final Map<Long, Roaring64Bitmap> tags = new HashMap<>();
+        final long expiresAtMillis;
+
+        OwnerIndex(long expiresAtMillis) {
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        boolean expired(long now) {
+            return expiresAtMillis <= now;
+        }
+
+        void add(NoteTagLink link) {
+            tags.computeIfAbsent(link.tagId(), id -> new Roaring64Bitmap()).addLong(link.noteId());
+        }
+
+        Roaring64Bitmap notes(Long tagId) {
+            return tags.getOrDefault(tagId, EMPTY);
+        }
+
+        Roaring64Bitmap union(List<Long> tagIds) {
+            Roaring64Bitmap union = new Roaring64Bitmap();
+            tagIds.forEach(tagId -> union.or(notes(tagId)));
+            return union;
+        }
+    }
+}
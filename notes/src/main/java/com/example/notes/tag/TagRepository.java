@@ -1,6 +1,7 @@
 package com.example.notes.tag;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,4 +12,21 @@ import java.util.Optional;
 public interface TagRepository extends JpaRepository<Tag, Long> {
     List<Tag> findByOwnerId(Long ownerId);
     Optional<Tag> findByOwnerIdAndName(Long ownerId, String name);
+
+    @Query("""
+        select new com.example.notes.tag.TagNoteCount(t.id, count(n))
+        from Note n
+        join n.tags t
+        where t.ownerId = :ownerId
+        group by t.id
+        """)
+    List<TagNoteCount> countNotesByOwnerId(Long ownerId);
+
+    @Query("""
+        select new com.example.notes.tag.NoteTagLink(n.id, t.id)
+        from Note n
+        join n.tags t
+        where t.ownerId = :ownerId
+        """)
+    List<NoteTagLink> findNoteTagLinksByOwnerId(Long ownerId);
 }
@@ -5,19 +5,33 @@ import com.example.notes.common.NotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Handles tag CRUD bound to a user (owner).
+ *
+ * Reads and ownership checks are served from {@link TagCache}. Callers that link or unlink tags
+ * report it through the {@code note*} methods, which keep the cached counts and the
+ * {@link TagNoteIndex} current.
  */
 @Service
 @Transactional
 public class TagService {
 
     private final TagRepository tagRepository;
+    private final TagCache tagCache;
+    private final TagNoteIndex tagNoteIndex;
 
-    public TagService(TagRepository tagRepository) {
+    public TagService(TagRepository tagRepository, TagCache tagCache, TagNoteIndex tagNoteIndex) {
         this.tagRepository = tagRepository;
+        this.tagCache = tagCache;
+        this.tagNoteIndex = tagNoteIndex;
     }
 
     public Tag createTag(Long ownerId, String name) {
@@ -29,12 +43,27 @@ public class TagService {
                 .ownerId(ownerId)
                 .name(name)
                 .build();
-        return tagRepository.save(tag);
+        Tag saved = tagRepository.save(tag);
+        tagCache.evict(ownerId);
+        return saved;
     }
 
     @Transactional(readOnly = true)
     public List<Tag> listTags(Long ownerId) {
-        return tagRepository.findByOwnerId(ownerId);
+        return List.copyOf(ownedTags(ownerId).values());
+    }
+
+    /**
+     * Lists the owner's tags with the number of notes carrying each one.
+     */
+    @Transactional(readOnly = true)
+    public List<TagUsage> listTagsWithCounts(Long ownerId) {
+        Map<Long, Tag> tags = ownedTags(ownerId);
+        Map<Long, Long> counts = tagCache.noteCounts(ownerId, tagRepository::findByOwnerId,
+                () -> tagRepository.countNotesByOwnerId(ownerId));
+        return tags.values().stream()
+                .map(tag -> new TagUsage(tag, counts.getOrDefault(tag.getId(), 0L)))
+                .toList();
     }
 
     public void deleteTag(Long ownerId, Long tagId) {
@@ -44,15 +73,88 @@ public class TagService {
             throw new NotFoundException("Tag not found");
         }
         tagRepository.delete(tag);
+        tagCache.evict(ownerId);
+        tagNoteIndex.tagRemoved(ownerId, tagId);
     }
 
+    @Transactional(readOnly = true)
     public Tag getOwnedTagOrThrow(Long ownerId, Long tagId) {
-        Tag tag = tagRepository.findById(tagId)
-                .orElseThrow(() -> new NotFoundException("Tag not found"));
-        // Verify ownership: return same error message to avoid information leakage
-        if (!tag.getOwnerId().equals(ownerId)) {
+        // Only the owner's tags are cached, so a foreign id gets the same error as a missing one
+        Tag tag = ownedTags(ownerId).get(tagId);
+        if (tag == null) {
             throw new NotFoundException("Tag not found");
         }
         return tag;
     }
+
+    /**
+     * Resolves all tags in the order of the distinct ids given.
+     * Ids that do not exist or belong to another user are reported together in one NotFoundException.
+     */
+    @Transactional(readOnly = true)
+    public List<Tag> getOwnedTagsOrThrow(Long ownerId, Collection<Long> tagIds) {
+        Set<Long> unique = new LinkedHashSet<>(tagIds);
+        if (unique.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Tag> owned = ownedTags(ownerId);
+        List<Long> missing = unique.stream().filter(id -> !owned.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new NotFoundException("Tags not found: " + missing);
+        }
+        List<Tag> tags = new ArrayList<>(unique.size());
+        unique.forEach(id -> tags.add(owned.get(id)));
+        return tags;
+    }
+
+    /**
+     * Resolves a tag filter to note ids from the in-memory index instead of grouped subqueries,
+     * or returns empty when the index is disabled and the filter has to run as SQL.
+     */
+    @Transactional(readOnly = true)
+    public Optional<TagMatch> matchNotes(Long ownerId, TagFilter filter) {
+        if (!tagNoteIndex.isEnabled()) {
+            return Optional.empty();
+        }
+        return Optional.of(tagNoteIndex.match(ownerId, filter));
+    }
+
+    /**
+     * Records that the note gained the tag; applied on commit.
+     */
+    public void noteTagged(Long ownerId, Long noteId, Long tagId) {
+        tagCache.adjustNoteCount(ownerId, tagId, 1);
+        tagNoteIndex.linked(ownerId, List.of(noteId), List.of(tagId));
+    }
+
+    public void noteUntagged(Long ownerId, Long noteId, Long tagId) {
+        tagCache.adjustNoteCount(ownerId, tagId, -1);
+        tagNoteIndex.unlinked(ownerId, List.of(noteId), List.of(tagId));
+    }
+
+    /**
+     * Records that every note now carries every tag. How many links are new is unknown per tag,
+     * so cached counts are dropped for the owner.
+     */
+    public void notesTagged(Long ownerId, Collection<Long> noteIds, Collection<Long> tagIds) {
+        tagCache.evict(ownerId);
+        tagNoteIndex.linked(ownerId, List.copyOf(noteIds), List.copyOf(tagIds));
+    }
+
+    public void notesUntagged(Long ownerId, Collection<Long> noteIds, Collection<Long> tagIds) {
+        tagCache.evict(ownerId);
+        tagNoteIndex.unlinked(ownerId, List.copyOf(noteIds), List.copyOf(tagIds));
+    }
+
+    /**
+     * Records that the notes and with them all their tag links were deleted.
+     */
+    public void notesDeleted(Long ownerId, Collection<Long> noteIds) {
+        tagCache.evict(ownerId);
+        tagNoteIndex.notesRemoved(ownerId, List.copyOf(noteIds));
+    }
+
+    private Map<Long, Tag> ownedTags(Long ownerId) {
+        return tagCache.tags(ownerId, tagRepository::findByOwnerId);
+    }
 }
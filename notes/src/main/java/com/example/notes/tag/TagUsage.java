@@ -0,0 +1,7 @@
+package com.example.notes.tag;
+
+/**
+ * A tag together with the number of notes carrying it (in any state, including trashed).
+ */
+public record TagUsage(Tag tag, long noteCount) {
+}
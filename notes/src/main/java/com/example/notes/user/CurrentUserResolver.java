@@ -22,11 +22,16 @@ public class CurrentUserResolver {
             return appUserDetails.getId();
         }
         if (principal instanceof UserDetails userDetails) {
-            return userService.findByUsernameOrThrow(userDetails.getUsername()).getId();
+            return userService.loadPrincipal(userDetails.getUsername()).getId();
         }
         if (principal instanceof Principal genericPrincipal) {
-            return userService.findByUsernameOrThrow(genericPrincipal.getName()).getId();
+            return userService.loadPrincipal(genericPrincipal.getName()).getId();
         }
         throw new IllegalArgumentException("Unsupported principal type: " + principal.getClass().getName());
     }
+
+    public boolean isAdmin(Object principal) {
+        return principal instanceof UserDetails userDetails
+                && userDetails.getAuthorities().stream().anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
 }
@@ -0,0 +1,62 @@
+package com.example.notes.user;
+
+import com.example.notes.common.BoundedExpiringCache;
+import com.example.notes.common.Transactions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of authenticated principals by username, so request authentication
+ * does not query {@code users} and {@code user_roles} on every call.
+ *
+ * Entries are detached snapshots of the user. Local changes evict the entry immediately and
+ * again after commit; changes made by other instances become visible within the TTL.
+ */
+@Component
+public class PrincipalCache {
+
+    private final BoundedExpiringCache<String, AppUserDetails> principals;
+    private final Duration ttl;
+
+    public PrincipalCache(@Value("${security.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${security.principal-cache.ttl:PT60S}") Duration ttl) {
+        this.principals = new BoundedExpiringCache<>(maxSize);
+        this.ttl = ttl;
+    }
+
+    public AppUserDetails get(String username, Function<String, User> loader) {
+        AppUserDetails cached = principals.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        AppUserDetails loaded = new AppUserDetails(snapshot(loader.apply(username)));
+        if (!ttl.isZero() && !ttl.isNegative()) {
+            principals.put(username, loaded, ttl);
+        }
+        return loaded;
+    }
+
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        principals.invalidate(username);
+        // A concurrent request may re-cache the old row before this transaction commits
+        Transactions.afterCompletion(() -> principals.invalidate(username));
+    }
+
+    private static User snapshot(User user) {
+        return User.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .passwordHash(user.getPasswordHash())
+                .roles(new HashSet<>(user.getRoles()))
+                .createdAt(user.getCreatedAt())
+                .build();
+    }
+}
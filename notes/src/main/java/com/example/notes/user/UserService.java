@@ -4,6 +4,7 @@ import com.example.notes.common.NotFoundException;
 import com.example.notes.common.ConflictException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
@@ -19,11 +20,14 @@ public class UserService implements org.springframework.security.core.userdetail
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
     public UserService(UserRepository userRepository,
-                       PasswordEncoder passwordEncoder) {
+                       PasswordEncoder passwordEncoder,
+                       PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
     }
 
     public User register(String username, String email, String rawPassword) {
@@ -68,6 +72,7 @@ public class UserService implements org.springframework.security.core.userdetail
             throw new IllegalArgumentException("Invalid current password");
         }
         user.setPasswordHash(passwordEncoder.encode(newPassword));
+        principalCache.evict(user.getUsername());
         return userRepository.save(user);
     }
 
@@ -82,16 +87,31 @@ public class UserService implements org.springframework.security.core.userdetail
                 });
         User user = getByIdOrThrow(id);
         user.setEmail(email);
+        principalCache.evict(user.getUsername());
         return userRepository.save(user);
     }
 
     public void deleteUser(Long id) {
         User user = getByIdOrThrow(id);
         userRepository.delete(user);
+        principalCache.evict(user.getUsername());
     }
 
+    /**
+     * Uncached lookup; used by the login flow, which must check the current password hash.
+     */
     @Override
     public AppUserDetails loadUserByUsername(String username) throws NotFoundException {
         return new AppUserDetails(findByUsernameOrThrow(username));
     }
+
+    /**
+     * Principal for an already authenticated request (JWT), served from {@link PrincipalCache}.
+     * A cache hit runs without a transaction; a miss loads the user (roles are eager) in the
+     * repository's own read-only transaction.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public AppUserDetails loadPrincipal(String username) throws NotFoundException {
+        return principalCache.get(username, this::findByUsernameOrThrow);
+    }
 }
@@ -0,0 +1,119 @@
+package com.example.notes.web;
+
+import com.example.notes.audit.AuditCursor;
+import com.example.notes.audit.AuditFilter;
+import com.example.notes.audit.AuditPage;
+import com.example.notes.audit.AuditQueryService;
+import com.example.notes.user.CurrentUserResolver;
+import com.example.notes.web.dto.ApiResponse;
+import com.example.notes.web.dto.AuditLogResponse;
+import com.example.notes.web.dto.CursorPageResponse;
+import com.example.notes.web.mapper.AuditLogMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+/**
+ * Audit trail for incident review. Users see their own records; admins may read any user's
+ * records, or all of them when {@code userId} is omitted.
+ */
+@RestController
+@RequestMapping("/api/audit")
+public class AuditController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final AuditQueryService auditQueryService;
+    private final AuditLogMapper auditLogMapper;
+    private final CurrentUserResolver currentUserResolver;
+    private final ObjectMapper objectMapper;
+
+    public AuditController(AuditQueryService auditQueryService,
+                           AuditLogMapper auditLogMapper,
+                           CurrentUserResolver currentUserResolver,
+                           ObjectMapper objectMapper) {
+        this.auditQueryService = auditQueryService;
+        this.auditLogMapper = auditLogMapper;
+        this.currentUserResolver = currentUserResolver;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Newest first across all matching users; pass {@code nextCursor} back as {@code cursor} to continue.
+     */
+    @GetMapping
+    public ApiResponse<CursorPageResponse<AuditLogResponse>> list(
+            @AuthenticationPrincipal Object principal,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        AuditFilter filter = new AuditFilter(scopeUserId(principal, userId), action, entityType, from, to);
+        AuditCursor after = cursor == null || cursor.isBlank() ? null : AuditCursor.decode(cursor);
+        AuditPage page = auditQueryService.list(filter, after, size);
+        return ApiResponse.ok(new CursorPageResponse<>(
+                page.entries().stream().map(auditLogMapper::toResponse).toList(),
+                size,
+                page.next() == null ? null : page.next().encode(),
+                page.next() != null
+        ));
+    }
+
+    /**
+     * Streams every matching record as newline-delimited JSON, in the same order as {@link #list}.
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public void export(@AuthenticationPrincipal Object principal,
+                       @RequestParam(required = false) Long userId,
+                       @RequestParam(required = false) String action,
+                       @RequestParam(required = false) String entityType,
+                       @RequestParam(required = false) Instant from,
+                       @RequestParam(required = false) Instant to,
+                       HttpServletResponse response) throws IOException {
+        AuditFilter filter = new AuditFilter(scopeUserId(principal, userId), action, entityType, from, to);
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        // One generator for the whole export: writing each record through ObjectWriter.writeValue(OutputStream)
+        // would close the response stream after the first line, and flushing per record defeats buffering
+        ObjectWriter writer = objectMapper.writerFor(AuditLogResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.createGenerator(StreamUtils.nonClosing(response.getOutputStream()))) {
+            generator.setRootValueSeparator(null);
+            auditQueryService.export(filter, entry -> {
+                try {
+                    writer.writeValue(generator, auditLogMapper.toResponse(entry));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Long scopeUserId(Object principal, Long requested) {
+        if (currentUserResolver.isAdmin(principal)) {
+            return requested;
+        }
+        Long currentUserId = currentUserResolver.resolveUserId(principal);
+        if (requested != null && !requested.equals(currentUserId)) {
+            throw new AccessDeniedException("Reading other users' audit records requires the admin role");
+        }
+        return currentUserId;
+    }
+}
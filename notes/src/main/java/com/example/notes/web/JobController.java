@@ -0,0 +1,34 @@
+package com.example.notes.web;
+
+import com.example.notes.job.JobRegistry;
+import com.example.notes.user.CurrentUserResolver;
+import com.example.notes.web.dto.ApiResponse;
+import com.example.notes.web.dto.JobResponse;
+import com.example.notes.web.mapper.JobMapper;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Progress of background jobs started by the current user.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    private final JobRegistry jobRegistry;
+    private final JobMapper jobMapper;
+    private final CurrentUserResolver currentUserResolver;
+
+    public JobController(JobRegistry jobRegistry, JobMapper jobMapper, CurrentUserResolver currentUserResolver) {
+        this.jobRegistry = jobRegistry;
+        this.jobMapper = jobMapper;
+        this.currentUserResolver = currentUserResolver;
+    }
+
+    @GetMapping("/{id}")
+    public ApiResponse<JobResponse> get(@AuthenticationPrincipal Object principal,
+                                        @PathVariable String id) {
+        Long ownerId = currentUserResolver.resolveUserId(principal);
+        return ApiResponse.ok(jobMapper.toResponse(jobRegistry.getOwnedOrThrow(ownerId, id)));
+    }
+}
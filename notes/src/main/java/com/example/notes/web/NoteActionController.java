@@ -1,11 +1,15 @@
 package com.example.notes.web;
 
+import com.example.notes.note.EmptyTrashJob;
 import com.example.notes.note.Note;
 import com.example.notes.note.NoteActionService;
 import com.example.notes.user.CurrentUserResolver;
 import com.example.notes.web.dto.ApiResponse;
+import com.example.notes.web.dto.JobResponse;
 import com.example.notes.web.dto.NoteResponse;
+import com.example.notes.web.mapper.JobMapper;
 import com.example.notes.web.mapper.NoteMapper;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -18,12 +22,17 @@ import org.springframework.web.bind.annotation.*;
 public class NoteActionController {
 
     private final NoteActionService noteActionService;
+    private final EmptyTrashJob emptyTrashJob;
     private final NoteMapper noteMapper;
+    private final JobMapper jobMapper;
     private final CurrentUserResolver currentUserResolver;
 
-    public NoteActionController(NoteActionService noteActionService, NoteMapper noteMapper, CurrentUserResolver currentUserResolver) {
+    public NoteActionController(NoteActionService noteActionService, EmptyTrashJob emptyTrashJob,
+                                NoteMapper noteMapper, JobMapper jobMapper, CurrentUserResolver currentUserResolver) {
         this.noteActionService = noteActionService;
+        this.emptyTrashJob = emptyTrashJob;
         this.noteMapper = noteMapper;
+        this.jobMapper = jobMapper;
         this.currentUserResolver = currentUserResolver;
     }
 
@@ -66,4 +75,14 @@ public class NoteActionController {
         noteActionService.deletePermanently(ownerId, id);
         return ResponseEntity.ok(ApiResponse.ok(null));
     }
+
+    /**
+     * Starts permanently deleting every trashed note in the background; poll GET /api/jobs/{id} for progress.
+     */
+    @PostMapping("/trash/empty")
+    public ResponseEntity<ApiResponse<JobResponse>> emptyTrash(@AuthenticationPrincipal Object principal) {
+        Long ownerId = currentUserResolver.resolveUserId(principal);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.ok(jobMapper.toResponse(emptyTrashJob.submit(ownerId))));
+    }
 }
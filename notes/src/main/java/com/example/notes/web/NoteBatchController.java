@@ -5,7 +5,10 @@ import com.example.notes.note.Note;
 import com.example.notes.note.NoteBatchService;
 import com.example.notes.user.CurrentUserResolver;
 import com.example.notes.web.dto.ApiResponse;
+import com.example.notes.web.dto.NoteBatchDeleteResponse;
 import com.example.notes.web.dto.NoteBatchRequest;
+import com.example.notes.web.dto.NoteBatchTagRequest;
+import com.example.notes.web.dto.NoteBatchTagResponse;
 import com.example.notes.web.dto.NoteResponse;
 import com.example.notes.web.mapper.NoteMapper;
 import jakarta.validation.Valid;
@@ -74,12 +77,32 @@ public class NoteBatchController {
     }
 
     @DeleteMapping("/permanent")
-    public ApiResponse<Void> deletePermanent(@AuthenticationPrincipal Object principal,
-                                             @RequestBody @Valid NoteBatchRequest req) {
+    public ApiResponse<NoteBatchDeleteResponse> deletePermanent(@AuthenticationPrincipal Object principal,
+                                                                @RequestBody @Valid NoteBatchRequest req) {
         Long ownerId = currentUserResolver.resolveUserId(principal);
-        noteBatchService.deletePermanently(ownerId, req.noteIds());
+        var result = noteBatchService.deletePermanently(ownerId, req.noteIds());
         auditService.record(ownerId, "NOTE_BATCH_PERMANENT_DELETE", "NOTE", null,
-                "Permanently deleted " + req.noteIds().size() + " notes");
-        return ApiResponse.ok(null);
+                "Permanently deleted " + result.deleted() + " notes");
+        return ApiResponse.ok(new NoteBatchDeleteResponse(result.deleted(), result.notFoundIds()));
+    }
+
+    @PostMapping("/tags/add")
+    public ApiResponse<NoteBatchTagResponse> addTags(@AuthenticationPrincipal Object principal,
+                                                     @RequestBody @Valid NoteBatchTagRequest req) {
+        Long ownerId = currentUserResolver.resolveUserId(principal);
+        var result = noteBatchService.addTags(ownerId, req.noteIds(), req.tagIds());
+        auditService.record(ownerId, "NOTE_BATCH_ADD_TAGS", "NOTE", null,
+                "Added " + req.tagIds().size() + " tags to " + result.notes() + " notes");
+        return ApiResponse.ok(new NoteBatchTagResponse(result.notes(), result.changed()));
+    }
+
+    @PostMapping("/tags/remove")
+    public ApiResponse<NoteBatchTagResponse> removeTags(@AuthenticationPrincipal Object principal,
+                                                        @RequestBody @Valid NoteBatchTagRequest req) {
+        Long ownerId = currentUserResolver.resolveUserId(principal);
+        var result = noteBatchService.removeTags(ownerId, req.noteIds(), req.tagIds());
+        auditService.record(ownerId, "NOTE_BATCH_REMOVE_TAGS", "NOTE", null,
+                "Removed " + req.tagIds().size() + " tags from " + result.notes() + " notes");
+        return ApiResponse.ok(new NoteBatchTagResponse(result.notes(), result.changed()));
     }
 }
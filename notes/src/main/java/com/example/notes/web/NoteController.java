@@ -1,7 +1,10 @@
 package com.example.notes.web;
 
 import com.example.notes.note.Note;
+import com.example.notes.note.NoteCountMode;
+import com.example.notes.note.NoteCursor;
 import com.example.notes.note.NoteService;
+import com.example.notes.tag.TagFilter;
 import com.example.notes.user.CurrentUserResolver;
 import com.example.notes.web.dto.*;
 
@@ -35,6 +38,8 @@ public class NoteController {
 
     /**
      * Get a paginated list of notes with optional filters.
+     * {@code count=exact|estimate|none} controls the cost of the page totals.
+     * Notes must carry all {@code tagIds}, at least one of {@code anyTagIds} and none of {@code excludeTagIds}.
      */
     @GetMapping
     public ApiResponse<PageResponse<NoteResponse>> list(
@@ -45,22 +50,62 @@ public class NoteController {
             @RequestParam(required = false) Boolean pinned,
             @RequestParam(required = false) String q,
             @RequestParam(required = false) Boolean searchInContent,
-            @RequestParam(required = false) List<Long> tagIds
+            @RequestParam(required = false) List<Long> tagIds,
+            @RequestParam(required = false) List<Long> anyTagIds,
+            @RequestParam(required = false) List<Long> excludeTagIds,
+            @RequestParam(required = false, defaultValue = "exact") String count
     ) {
         Long ownerId = currentUserResolver.resolveUserId(principal);
         boolean includeContent = searchInContent == null || searchInContent;
-        var page = noteService.listNotes(ownerId, pageable, archived, trashed, pinned, q, includeContent, tagIds);
-        var content = page.map(noteMapper::toResponse).getContent();
+        TagFilter tags = new TagFilter(tagIds, anyTagIds, excludeTagIds);
+        NoteCountMode countMode = NoteCountMode.fromParam(count);
+        var slice = noteService.listNotes(ownerId, pageable, archived, trashed, pinned, q, includeContent, tags, countMode);
+        var content = slice.map(noteMapper::toResponse).getContent();
+        Page<?> page = countMode != NoteCountMode.NONE && slice instanceof Page<?> counted ? counted : null;
         var response = new PageResponse<>(
                 content,
-                page.getNumber(),
-                page.getSize(),
-                page.getTotalElements(),
-                page.getTotalPages()
+                slice.getNumber(),
+                slice.getSize(),
+                page == null ? null : page.getTotalElements(),
+                page == null ? null : page.getTotalPages(),
+                slice.hasNext(),
+                countMode.param()
         );
         return ApiResponse.ok(response);
     }
 
+    /**
+     * Keyset variant of {@link #list}, selected by passing {@code cursor} (empty for the first page).
+     * Takes the same filters, computes no total count, and returns {@code nextCursor} to continue.
+     */
+    @GetMapping(params = "cursor")
+    public ApiResponse<CursorPageResponse<NoteResponse>> listAfter(
+            @AuthenticationPrincipal Object principal,
+            Pageable pageable,
+            @RequestParam(required = false) Boolean archived,
+            @RequestParam(required = false) Boolean trashed,
+            @RequestParam(required = false) Boolean pinned,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Boolean searchInContent,
+            @RequestParam(required = false) List<Long> tagIds,
+            @RequestParam(required = false) List<Long> anyTagIds,
+            @RequestParam(required = false) List<Long> excludeTagIds,
+            @RequestParam String cursor
+    ) {
+        Long ownerId = currentUserResolver.resolveUserId(principal);
+        boolean includeContent = searchInContent == null || searchInContent;
+        TagFilter tags = new TagFilter(tagIds, anyTagIds, excludeTagIds);
+        NoteCursor after = cursor.isBlank() ? null : NoteCursor.decode(cursor);
+        var slice = noteService.listNotesAfter(ownerId, after, pageable.getPageSize(),
+                archived, trashed, pinned, q, includeContent, tags);
+        return ApiResponse.ok(new CursorPageResponse<>(
+                slice.notes().stream().map(noteMapper::toResponse).toList(),
+                pageable.getPageSize(),
+                slice.next() == null ? null : slice.next().encode(),
+                slice.next() != null
+        ));
+    }
+
     /**
      * Create a new note.
      */
@@ -75,6 +120,16 @@ public class NoteController {
                 .body(ApiResponse.ok(noteMapper.toResponse(note)));
     }
 
+    /**
+     * Note counts per state, read from maintained counters rather than counted.
+     */
+    @GetMapping("/stats")
+    public ApiResponse<NoteStatsResponse> stats(@AuthenticationPrincipal Object principal) {
+        Long ownerId = currentUserResolver.resolveUserId(principal);
+        var counts = noteService.getStats(ownerId);
+        return ApiResponse.ok(new NoteStatsResponse(counts.active(), counts.archived(), counts.trashed(), counts.pinned()));
+    }
+
     /**
      * Get a single note by ID.
      */
@@ -4,6 +4,7 @@ import com.example.notes.tag.Tag;
 import com.example.notes.tag.TagService;
 import com.example.notes.user.CurrentUserResolver;
 import com.example.notes.web.dto.ApiResponse;
+import com.example.notes.web.dto.TagCountResponse;
 import com.example.notes.web.dto.TagCreateRequest;
 import com.example.notes.web.dto.TagResponse;
 import com.example.notes.web.mapper.TagMapper;
@@ -49,6 +50,17 @@ public class TagController {
                 .toList());
     }
 
+    /**
+     * Same list with note counts per tag, for rendering the sidebar in one request.
+     */
+    @GetMapping(params = "withCounts=true")
+    public ApiResponse<List<TagCountResponse>> listWithCounts(@AuthenticationPrincipal Object principal) {
+        Long ownerId = currentUserResolver.resolveUserId(principal);
+        return ApiResponse.ok(tagService.listTagsWithCounts(ownerId).stream()
+                .map(usage -> new TagCountResponse(usage.tag().getId(), usage.tag().getName(), usage.noteCount()))
+                .toList());
+    }
+
     @GetMapping("/{id}")
     public ApiResponse<TagResponse> get(@AuthenticationPrincipal Object principal,
                                         @PathVariable Long id) {
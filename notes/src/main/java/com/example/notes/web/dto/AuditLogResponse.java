@@ -0,0 +1,16 @@
+package com.example.notes.web.dto;
+
+import java.time.Instant;
+
+/**
+ * One audit record.
+ */
+public record AuditLogResponse(
+        Long id,
+        Long userId,
+        String action,
+        String entityType,
+        Long entityId,
+        String description,
+        Instant timestamp
+) {}
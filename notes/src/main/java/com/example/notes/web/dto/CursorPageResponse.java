@@ -0,0 +1,13 @@
+package com.example.notes.web.dto;
+
+import java.util.List;
+
+/**
+ * Keyset page for infinite scrolling: no totals, pass {@code nextCursor} back to continue.
+ */
+public record CursorPageResponse<T>(
+        List<T> content,
+        int pageSize,
+        String nextCursor,
+        boolean hasNext
+) {}
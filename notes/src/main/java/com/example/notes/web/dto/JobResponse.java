@@ -0,0 +1,18 @@
+package com.example.notes.web.dto;
+
+import java.time.Instant;
+
+/**
+ * Background job progress. {@code total} is the expected item count when known.
+ */
+public record JobResponse(
+        String id,
+        String type,
+        String status,
+        long processed,
+        Long total,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt,
+        String error
+) {}
@@ -0,0 +1,11 @@
+package com.example.notes.web.dto;
+
+import java.util.List;
+
+/**
+ * Result of a batch permanent delete; {@code notFoundIds} lists requested ids that were missing or not owned.
+ */
+public record NoteBatchDeleteResponse(
+        int deleted,
+        List<Long> notFoundIds
+) {}
@@ -0,0 +1,21 @@
+package com.example.notes.web.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request to add or remove the same tags on many notes.
+ */
+public record NoteBatchTagRequest(
+        @NotNull(message = "Note IDs cannot be null")
+        @NotEmpty(message = "Note IDs cannot be empty")
+        List<@NotNull(message = "Note ID cannot be null") @Positive(message = "Note ID must be positive") Long> noteIds,
+        @NotNull(message = "Tag IDs cannot be null")
+        @NotEmpty(message = "Tag IDs cannot be empty")
+        @Size(max = 50, message = "Cannot assign more than 50 tags at once")
+        List<@NotNull(message = "Tag ID cannot be null") @Positive(message = "Tag ID must be positive") Long> tagIds
+) {}
@@ -0,0 +1,9 @@
+package com.example.notes.web.dto;
+
+/**
+ * Result of a batch tag change; {@code changed} counts the note/tag links inserted or deleted.
+ */
+public record NoteBatchTagResponse(
+        int notes,
+        int changed
+) {}
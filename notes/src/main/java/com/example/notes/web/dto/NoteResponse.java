@@ -15,5 +15,6 @@ public record NoteResponse(
         boolean trashed,
         Instant createdAt,
         Instant updatedAt,
+        Instant trashedAt,
         List<TagResponse> tags
 ) {}
@@ -0,0 +1,11 @@
+package com.example.notes.web.dto;
+
+/**
+ * Note counts per state. {@code pinned} is included in {@code active}.
+ */
+public record NoteStatsResponse(
+        long active,
+        long archived,
+        long trashed,
+        long pinned
+) {}
@@ -4,11 +4,14 @@ import java.util.List;
 
 /**
  * Unified page response for frontend convenience.
+ * Totals are null when the count mode is "none"; with "estimate" they may be a lower bound.
  */
 public record PageResponse<T>(
         List<T> content,
         int pageNumber,
         int pageSize,
-        long totalElements,
-        int totalPages
+        Long totalElements,
+        Integer totalPages,
+        boolean hasNext,
+        String countMode
 ) {}
@@ -0,0 +1,10 @@
+package com.example.notes.web.dto;
+
+/**
+ * Read model for tag with the number of notes carrying it.
+ */
+public record TagCountResponse(
+        Long id,
+        String name,
+        long noteCount
+) {}
@@ -0,0 +1,13 @@
+package com.example.notes.web.mapper;
+
+import com.example.notes.audit.AuditLog;
+import com.example.notes.web.dto.AuditLogResponse;
+import org.mapstruct.Mapper;
+
+/**
+ * Maps AuditLog to AuditLogResponse.
+ */
+@Mapper(componentModel = "spring")
+public interface AuditLogMapper {
+    AuditLogResponse toResponse(AuditLog log);
+}
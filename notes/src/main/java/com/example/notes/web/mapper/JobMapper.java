@@ -0,0 +1,13 @@
+package com.example.notes.web.mapper;
+
+import com.example.notes.job.Job;
+import com.example.notes.web.dto.JobResponse;
+import org.mapstruct.Mapper;
+
+/**
+ * Maps Job to JobResponse.
+ */
+@Mapper(componentModel = "spring")
+public interface JobMapper {
+    JobResponse toResponse(Job job);
+}
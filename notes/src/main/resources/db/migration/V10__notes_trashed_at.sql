@@ -0,0 +1,9 @@
+-- src/main/resources/db/migration/V10__notes_trashed_at.sql
+-- Records when a note entered the trash so old trash can be purged without scanning the table
+
+ALTER TABLE notes ADD COLUMN IF NOT EXISTS trashed_at TIMESTAMP;
+
+-- Best available approximation for notes trashed before this column existed
+UPDATE notes SET trashed_at = updated_at WHERE trashed AND trashed_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_notes_trashed_at ON notes (trashed_at, id) WHERE trashed;
@@ -0,0 +1,11 @@
+-- src/main/resources/db/migration/V11__invalidated_tokens.sql
+-- Revoked JWT ids (TokenBlacklistEntry); the table was previously only created by Hibernate DDL
+
+CREATE TABLE IF NOT EXISTS invalidated_tokens (
+    jti VARCHAR(128) PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Filter rebuilds and hourly cleanup both select by expiry
+CREATE INDEX IF NOT EXISTS idx_invalidated_tokens_expires_at ON invalidated_tokens (expires_at);
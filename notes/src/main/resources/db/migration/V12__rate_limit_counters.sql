@@ -0,0 +1,12 @@
+-- src/main/resources/db/migration/V12__rate_limit_counters.sql
+-- Cluster-wide request counts per rate limit bucket and fixed window, flushed in batches by each instance
+
+CREATE TABLE IF NOT EXISTS rate_limit_counters (
+    bucket_key VARCHAR(255) NOT NULL,
+    window_start BIGINT NOT NULL,
+    request_count BIGINT NOT NULL DEFAULT 0,
+    expires_at BIGINT NOT NULL,
+    PRIMARY KEY (bucket_key, window_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_rate_limit_counters_expires_at ON rate_limit_counters (expires_at);
@@ -0,0 +1,4 @@
+-- src/main/resources/db/migration/V13__audit_log_sequence.sql
+-- audit_log ids are allocated by the application in blocks of 100 (pooled sequence) so inserts can be batched
+
+ALTER SEQUENCE audit_log_id_seq INCREMENT BY 100;
@@ -0,0 +1,44 @@
+-- src/main/resources/db/migration/V14__audit_log_partitioning.sql
+-- Range-partitions audit_log by month so inserts only touch the current partition's indexes
+-- and old months can be archived and dropped whole (AuditPartitionManager creates future months).
+
+ALTER TABLE audit_log RENAME TO audit_log_legacy;
+
+CREATE TABLE audit_log (
+    id BIGINT NOT NULL DEFAULT nextval('audit_log_id_seq'),
+    user_id BIGINT NOT NULL,
+    action VARCHAR(64) NOT NULL,
+    entity_type VARCHAR(32) NOT NULL,
+    entity_id BIGINT,
+    description VARCHAR(512),
+    timestamp TIMESTAMP NOT NULL,
+    -- The partition key has to be part of every unique constraint
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+-- Keep the id sequence when the legacy table is dropped
+ALTER SEQUENCE audit_log_id_seq OWNED BY audit_log.id;
+
+-- One partition per month from the oldest existing row through three months ahead
+DO $$
+DECLARE
+    partition_month DATE := date_trunc('month', coalesce((SELECT min(timestamp) FROM audit_log_legacy), now()))::date;
+    last_month DATE := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+BEGIN
+    WHILE partition_month <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_log FOR VALUES FROM (%L) TO (%L)',
+                       'audit_log_y' || to_char(partition_month, 'YYYY') || 'm' || to_char(partition_month, 'MM'),
+                       partition_month, (partition_month + INTERVAL '1 month')::date);
+        partition_month := (partition_month + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO audit_log (id, user_id, action, entity_type, entity_id, description, timestamp)
+SELECT id, user_id, action, entity_type, entity_id, description, timestamp FROM audit_log_legacy;
+
+DROP TABLE audit_log_legacy;
+
+-- Indexes on the parent are created on every partition, existing and future
+CREATE INDEX IF NOT EXISTS idx_audit_user ON audit_log (user_id);
+CREATE INDEX IF NOT EXISTS idx_audit_entity ON audit_log (entity_type, entity_id);
+CREATE INDEX IF NOT EXISTS idx_audit_time ON audit_log (timestamp);
@@ -0,0 +1,7 @@
+-- src/main/resources/db/migration/V15__audit_log_keyset_index.sql
+-- Serves GET /api/audit keyset pages and exports (user_id, timestamp, id, all descending);
+-- it also covers lookups by user_id, so the single-column index is dropped
+
+CREATE INDEX IF NOT EXISTS idx_audit_user_time ON audit_log (user_id DESC, timestamp DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_audit_user;
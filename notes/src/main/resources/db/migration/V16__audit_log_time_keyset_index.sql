@@ -0,0 +1,7 @@
+-- src/main/resources/db/migration/V16__audit_log_time_keyset_index.sql
+-- Serves GET /api/audit keyset pages and exports across all users (timestamp, id, both descending);
+-- it also covers range scans on timestamp, so the single-column index is dropped
+
+CREATE INDEX IF NOT EXISTS idx_audit_time_id ON audit_log (timestamp DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_audit_time;
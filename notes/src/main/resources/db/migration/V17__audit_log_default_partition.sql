@@ -0,0 +1,5 @@
+-- src/main/resources/db/migration/V17__audit_log_default_partition.sql
+-- Catches audit rows outside the pre-created months (clock skew, backfills, a missed maintenance run)
+-- instead of failing their insert; AuditPartitionManager moves them into month partitions.
+
+CREATE TABLE IF NOT EXISTS audit_log_default PARTITION OF audit_log DEFAULT;
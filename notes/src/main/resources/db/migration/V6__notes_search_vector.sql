@@ -0,0 +1,13 @@
+-- src/main/resources/db/migration/V6__notes_search_vector.sql
+-- Full-text search for notes: weighted tsvector (title = A, content = B) kept current by PostgreSQL itself
+
+ALTER TABLE notes ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(content, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_notes_search_vector ON notes USING GIN (search_vector);
+
+-- A btree over lower(content) can never serve '%q%' and rejects rows above the btree entry size limit
+DROP INDEX IF EXISTS idx_notes_content_lower;
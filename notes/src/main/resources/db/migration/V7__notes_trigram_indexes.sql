@@ -0,0 +1,7 @@
+-- src/main/resources/db/migration/V7__notes_trigram_indexes.sql
+-- Trigram indexes so short substring searches (LIKE '%frag%') on notes stay index-backed
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_notes_title_trgm ON notes USING GIN (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_notes_content_trgm ON notes USING GIN (lower(content) gin_trgm_ops);
@@ -0,0 +1,4 @@
+-- src/main/resources/db/migration/V8__notes_keyset_index.sql
+-- Supports keyset pagination of GET /api/notes?cursor= (pinned desc, updated_at desc, id desc per owner)
+
+CREATE INDEX IF NOT EXISTS idx_notes_owner_keyset ON notes (owner_id, pinned DESC, updated_at DESC, id DESC);
@@ -0,0 +1,24 @@
+-- src/main/resources/db/migration/V9__note_counters.sql
+-- Per-owner note counts by state, maintained by the application on every state transition
+
+CREATE TABLE IF NOT EXISTS note_counters (
+    owner_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    state VARCHAR(16) NOT NULL,
+    note_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (owner_id, state)
+);
+
+-- Backfill existing owners; owners without rows are initialized lazily on first use
+INSERT INTO note_counters (owner_id, state, note_count)
+SELECT u.id, s.state,
+       (SELECT count(*) FROM notes n
+        WHERE n.owner_id = u.id
+          AND CASE s.state
+                  WHEN 'ACTIVE' THEN NOT n.trashed AND NOT n.archived
+                  WHEN 'ARCHIVED' THEN n.archived AND NOT n.trashed
+                  WHEN 'TRASHED' THEN n.trashed
+                  ELSE n.pinned AND NOT n.archived AND NOT n.trashed
+              END)
+FROM users u
+CROSS JOIN (VALUES ('ACTIVE'), ('ARCHIVED'), ('TRASHED'), ('PINNED')) AS s(state)
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,89 @@
+package com.example.notes.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for the audit API over a real HTTP connection, so the streamed export is
+ * read the way a client sees it.
+ */
+public class AuditApiTest extends BaseApiTest {
+
+    private static final String TEST_USERNAME = "audittestuser_" + UUID.randomUUID().toString().substring(0, 8);
+    private static final String TEST_PASSWORD = "TestPassword123!";
+    private static final int NOTES = 5;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testExport_StreamsEveryRecordAsOneLine() throws Exception {
+        String registerBody = String.format("""
+            {
+                "username": "%s",
+                "email": "%s@example.com",
+                "password": "%s"
+            }
+            """, TEST_USERNAME, TEST_USERNAME, TEST_PASSWORD);
+
+        String token = given()
+                .spec(requestSpec)
+                .body(registerBody)
+                .when()
+                .post("/auth/register")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("data.token");
+        setAuthToken(token);
+
+        for (int i = 0; i < NOTES; i++) {
+            withAuth()
+                    .body("{\"title\": \"Audited note " + i + "\", \"content\": \"content\"}")
+                    .when()
+                    .post("/notes")
+                    .then()
+                    .statusCode(201);
+        }
+
+        // Audit records are written behind the request; wait until all of them are visible
+        String[] lines = new String[0];
+        for (int attempt = 0; attempt < 50 && lines.length < NOTES; attempt++) {
+            Thread.sleep(100);
+            String body = given()
+                    .header("Authorization", "Bearer " + token)
+                    .accept("application/x-ndjson")
+                    .queryParam("action", "CREATE_NOTE")
+                    .when()
+                    .get("/audit/export")
+                    .then()
+                    .statusCode(200)
+                    .contentType(startsWith("application/x-ndjson"))
+                    .extract()
+                    .asString();
+            lines = body.isEmpty() ? new String[0] : body.split("\n");
+        }
+
+        assertThat(lines).hasSize(NOTES);
+        for (String line : lines) {
+            assertThat(objectMapper.readTree(line).get("action").asText()).isEqualTo("CREATE_NOTE");
+        }
+    }
+
+    @Test
+    void testList_WithoutAuth_ReturnsUnauthorized() {
+        withoutAuth()
+                .contentType(ContentType.JSON)
+                .when()
+                .get("/audit")
+                .then()
+                .statusCode(401)
+                .body("success", equalTo(false));
+    }
+}
@@ -392,12 +392,29 @@ public class NotesApiTest extends BaseApiTest {
                 .body("data.content", is(notNullValue()));
     }
 
+    /**
+     * Test search with a short fragment from the middle of a word.
+     * Expects substring matching.
+     */
+    @Test
+    @Order(18)
+    void testSearchNotes_ShortFragment() {
+        withAuth()
+                .queryParam("q", "chab")
+                .when()
+                .get("/notes")
+                .then()
+                .statusCode(200)
+                .body("success", equalTo(true))
+                .body("data.content.title", hasItem("Searchable Note"));
+    }
+
     /**
      * Test pagination with custom page size.
      * Expects paginated results.
      */
     @Test
-    @Order(18)
+    @Order(19)
     void testPagination() {
         withAuth()
                 .queryParam("page", 0)
@@ -416,7 +433,7 @@ public class NotesApiTest extends BaseApiTest {
      * Expects not found (security: don't leak existence).
      */
     @Test
-    @Order(19)
+    @Order(20)
     void testNoteAccessControl() {
         // Create another user and note
         String otherUserBody = """
@@ -449,4 +466,111 @@ public class NotesApiTest extends BaseApiTest {
                 .body("success", equalTo(false))
                 .body("error.code", equalTo("not_found"));
     }
+
+    /**
+     * Test keyset pagination with cursor.
+     * Expects pages without totals that continue where the previous one ended.
+     */
+    @Test
+    @Order(21)
+    void testCursorPagination() {
+        for (String title : new String[]{"Cursor note A", "Cursor note B"}) {
+            withAuth()
+                    .body(String.format("""
+                        {
+                            "title": "%s",
+                            "content": "Cursor content"
+                        }
+                        """, title))
+                    .contentType(ContentType.JSON)
+                    .when()
+                    .post("/notes")
+                    .then()
+                    .statusCode(201);
+        }
+
+        String nextCursor = withAuth()
+                .queryParam("cursor", "")
+                .queryParam("size", 1)
+                .when()
+                .get("/notes")
+                .then()
+                .statusCode(200)
+                .body("success", equalTo(true))
+                .body("data.content.size()", equalTo(1))
+                .body("data.content[0].title", equalTo("Cursor note B"))
+                .body("data.hasNext", equalTo(true))
+                .body("data.totalElements", nullValue())
+                .extract()
+                .path("data.nextCursor");
+
+        withAuth()
+                .queryParam("cursor", nextCursor)
+                .queryParam("size", 1)
+                .when()
+                .get("/notes")
+                .then()
+                .statusCode(200)
+                .body("data.content[0].title", equalTo("Cursor note A"));
+
+        withAuth()
+                .queryParam("cursor", "garbage")
+                .when()
+                .get("/notes")
+                .then()
+                .statusCode(400)
+                .body("error.code", equalTo("invalid_request"));
+    }
+
+    /**
+     * Test count modes for the offset listing.
+     * Expects totals only when counting is requested.
+     */
+    @Test
+    @Order(22)
+    void testCountModes() {
+        withAuth()
+                .queryParam("count", "none")
+                .queryParam("size", 1)
+                .when()
+                .get("/notes")
+                .then()
+                .statusCode(200)
+                .body("data.countMode", equalTo("none"))
+                .body("data.totalElements", nullValue())
+                .body("data.hasNext", equalTo(true));
+
+        withAuth()
+                .queryParam("count", "estimate")
+                .when()
+                .get("/notes")
+                .then()
+                .statusCode(200)
+                .body("data.countMode", equalTo("estimate"))
+                .body("data.totalElements", equalTo(3))
+                .body("data.hasNext", equalTo(false));
+
+        withAuth()
+                .queryParam("count", "maybe")
+                .when()
+                .get("/notes")
+                .then()
+                .statusCode(400)
+                .body("error.code", equalTo("invalid_request"));
+    }
+
+    @Test
+    @Order(23)
+    void testNoteStats() {
+        withAuth()
+                .when()
+                .get("/notes/stats")
+                .then()
+                .statusCode(200)
+                .body("success", equalTo(true))
+                .body("data.active", equalTo(3))
+                .body("data.archived", equalTo(0))
+                .body("data.trashed", equalTo(1))
+                .body("data.pinned", equalTo(0));
+    }
 }
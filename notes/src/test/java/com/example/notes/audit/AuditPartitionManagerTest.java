@@ -0,0 +1,30 @@
+package com.example.notes.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditPartitionManagerTest {
+
+    @Test
+    void partitionName_shouldRoundTripThroughParseMonth() {
+        YearMonth month = YearMonth.of(2026, 3);
+
+        String name = AuditPartitionManager.partitionName(month);
+
+        assertThat(name).isEqualTo("audit_log_y2026m03");
+        assertThat(AuditPartitionManager.parseMonth(name)).contains(month);
+        assertThat(AuditPartitionManager.parseMonth("audit_log_default")).isEmpty();
+    }
+
+    @Test
+    void expired_shouldSelectPartitionsBeforeOldestKeptMonth() {
+        List<YearMonth> partitions = List.of(YearMonth.of(2026, 1), YearMonth.of(2025, 11), YearMonth.of(2025, 12));
+
+        assertThat(AuditPartitionManager.expired(partitions, YearMonth.of(2026, 1)))
+                .containsExactly(YearMonth.of(2025, 11), YearMonth.of(2025, 12));
+    }
+}
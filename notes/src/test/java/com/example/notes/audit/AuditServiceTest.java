@@ -8,17 +8,17 @@ import static org.mockito.Mockito.*;
 
 class AuditServiceTest {
 
-    private final AuditLogRepository repository = mock(AuditLogRepository.class);
-    private final AuditService auditService = new AuditService(repository);
+    private final AuditWriter writer = mock(AuditWriter.class);
+    private final AuditService auditService = new AuditService(writer);
 
     @Test
-    void record_shouldSaveAuditLog() {
+    void record_shouldSubmitAuditLog() {
         // when
         auditService.record(1L, "ACTION", "ENTITY", 10L, "Description");
 
         // then
         ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(repository).save(captor.capture());
+        verify(writer).submit(captor.capture());
 
         AuditLog saved = captor.getValue();
         assertThat(saved.getUserId()).isEqualTo(1L);
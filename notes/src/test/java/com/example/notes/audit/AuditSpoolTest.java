@@ -0,0 +1,91 @@
+package com.example.notes.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void next_shouldReplayUnacknowledgedEventsAfterRestart() throws Exception {
+        AuditSpool spool = new AuditSpool(directory, 4096, 4);
+        spool.offer(entry(1L, "first"), 0);
+        spool.offer(entry(null, null), 0);
+        assertThat(spool.next(10, 0)).hasSize(2);
+        spool.close();
+
+        AuditSpool reopened = new AuditSpool(directory, 4096, 4);
+        List<AuditLog> replayed = reopened.next(10, 0);
+
+        assertThat(replayed).extracting(AuditLog::getUserId).containsExactly(1L, null);
+        assertThat(replayed.get(0).getDescription()).isEqualTo("first");
+        assertThat(replayed.get(0).getTimestamp()).isEqualTo(Instant.parse("2030-01-01T10:15:30.123456789Z"));
+        reopened.acknowledge();
+        reopened.close();
+
+        assertThat(new AuditSpool(directory, 4096, 4).isEmpty()).isTrue();
+    }
+
+    @Test
+    void acknowledge_shouldDeleteShippedSegments() throws Exception {
+        AuditSpool spool = new AuditSpool(directory, 256, 8);
+        for (int i = 0; i < 20; i++) {
+            assertThat(spool.offer(entry((long) i, "event " + i), 0)).isTrue();
+        }
+        assertThat(segmentCount()).isGreaterThan(1);
+
+        List<AuditLog> batch = spool.next(100, 0);
+        spool.acknowledge();
+
+        assertThat(batch).extracting(AuditLog::getUserId).first().isEqualTo(0L);
+        assertThat(batch).hasSize(20);
+        assertThat(spool.isEmpty()).isTrue();
+        assertThat(segmentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void offer_shouldRejectUntilFullSegmentsAreShipped() throws Exception {
+        AuditSpool spool = new AuditSpool(directory, 128, 1);
+        int accepted = 0;
+        while (spool.offer(entry(1L, "event"), 0)) {
+            accepted++;
+        }
+
+        spool.next(accepted - 1, 0);
+        spool.acknowledge();
+        assertThat(spool.offer(entry(1L, "event"), 0)).isFalse();
+
+        spool.next(accepted, 0);
+        spool.acknowledge();
+        assertThat(spool.offer(entry(1L, "event"), 0)).isTrue();
+        assertThat(segmentCount()).isEqualTo(1);
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static AuditLog entry(Long userId, String description) {
+        return AuditLog.builder()
+                .userId(userId)
+                .action("ACTION")
+                .entityType("NOTE")
+                .entityId(42L)
+                .description(description)
+                .timestamp(Instant.parse("2030-01-01T10:15:30.123456789Z"))
+                .build();
+    }
+}
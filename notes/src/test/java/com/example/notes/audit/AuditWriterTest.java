@@ -0,0 +1,127 @@
+package com.example.notes.audit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class AuditWriterTest {
+
+    private final AuditLogRepository repository = mock(AuditLogRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Test
+    void stop_shouldFlushBufferedEventsInBatches() {
+        List<Integer> batchSizes = new ArrayList<>();
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            batchSizes.add(invocation.<List<AuditLog>>getArgument(0).size());
+            return invocation.getArgument(0);
+        });
+        AuditWriter writer = writer(1000, AuditOverflowPolicy.DROP);
+        writer.start();
+
+        for (int i = 0; i < 250; i++) {
+            assertThat(writer.submit(entry(1L))).isTrue();
+        }
+        writer.stop();
+
+        assertThat(batchSizes).allMatch(size -> size <= 100);
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(250);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void stop_shouldRetryFailedBatchRowByRow() {
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<AuditLog> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(entry -> entry.getUserId() == null)) {
+                throw new DataIntegrityViolationException("user_id is null");
+            }
+            return batch;
+        });
+        AuditWriter writer = writer(1000, AuditOverflowPolicy.DROP);
+        writer.start();
+
+        writer.submit(entry(1L));
+        writer.submit(entry(null));
+        writer.submit(entry(2L));
+        writer.stop();
+
+        verify(repository, times(2)).saveAll(argThatHasSingleUser());
+    }
+
+    @Test
+    void stop_shouldRetryBatchWhileDatabaseIsUnavailable() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new CannotCreateTransactionException("connection refused");
+            }
+            return invocation.getArgument(0);
+        });
+        AuditWriter writer = writer(1000, AuditOverflowPolicy.DROP);
+        writer.start();
+
+        writer.submit(entry(1L));
+        for (int attempt = 0; attempt < 50 && attempts.get() < 2; attempt++) {
+            Thread.sleep(100);
+        }
+        writer.stop();
+
+        verify(repository, never()).save(any());
+        verify(repository, times(2)).saveAll(argThatHasSingleUser());
+    }
+
+    @Test
+    void submit_shouldDropWhenBufferIsFull() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        AuditWriter writer = writer(1, AuditOverflowPolicy.DROP);
+        writer.start();
+
+        writer.submit(entry(1L));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(writer.submit(entry(2L))).isTrue();
+        assertThat(writer.submit(entry(3L))).isFalse();
+
+        release.countDown();
+        writer.stop();
+        verify(repository, times(2)).saveAll(anyList());
+    }
+
+    private static List<AuditLog> argThatHasSingleUser() {
+        return argThat(batch -> batch.size() == 1 && batch.get(0).getUserId() != null);
+    }
+
+    private AuditWriter writer(int capacity, AuditOverflowPolicy policy) {
+        return new AuditWriter(repository, transactionManager, new MemoryAuditBuffer(capacity), 100, 10, policy,
+                Duration.ofMillis(10), Duration.ofSeconds(5));
+    }
+
+    private static AuditLog entry(Long userId) {
+        return AuditLog.builder()
+                .userId(userId)
+                .action("ACTION")
+                .entityType("NOTE")
+                .timestamp(Instant.now())
+                .build();
+    }
+}
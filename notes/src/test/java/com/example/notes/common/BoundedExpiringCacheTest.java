@@ -0,0 +1,76 @@
+package com.example.notes.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedExpiringCacheTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void get_shouldReturnNullAfterExpiry() {
+        MutableClock clock = new MutableClock(NOW);
+        BoundedExpiringCache<String, String> cache = new BoundedExpiringCache<>(10, clock);
+        cache.put("a", "value", Duration.ofSeconds(30));
+
+        assertThat(cache.get("a")).isEqualTo("value");
+
+        clock.now = NOW.plusSeconds(30);
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_shouldNeverExceedMaxSize() {
+        BoundedExpiringCache<Integer, Integer> cache = new BoundedExpiringCache<>(100, new MutableClock(NOW));
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, i, Duration.ofMinutes(5));
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.get(999)).isEqualTo(999);
+    }
+
+    @Test
+    void put_shouldPreferEvictingExpiredEntries() {
+        MutableClock clock = new MutableClock(NOW);
+        BoundedExpiringCache<String, String> cache = new BoundedExpiringCache<>(2, clock);
+        cache.put("short", "1", Duration.ofSeconds(1));
+        cache.put("long", "2", Duration.ofMinutes(5));
+
+        clock.now = NOW.plusSeconds(2);
+        cache.put("new", "3", Duration.ofMinutes(5));
+
+        assertThat(cache.get("long")).isEqualTo("2");
+        assertThat(cache.get("new")).isEqualTo("3");
+    }
+
+    private static final class MutableClock extends Clock {
+        Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.notes.note;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class InMemoryNoteSearchEngineTest {
+
+    private final NoteRepository noteRepository = mock(NoteRepository.class);
+    private final InMemoryNoteSearchEngine engine = new InMemoryNoteSearchEngine(noteRepository, 100, Duration.ofMinutes(30));
+
+    @Test
+    void search_shouldLoadOwnerLazilyAndRankTitleMatchesFirst() {
+        when(noteRepository.findSearchDocumentsByOwnerId(1L)).thenReturn(List.of(
+                new NoteSearchDocument(1L, 1L, "Groceries", "Buy milk and bread"),
+                new NoteSearchDocument(2L, 1L, "Milk prices", "Compare stores"),
+                new NoteSearchDocument(3L, 1L, "Ideas", "Nothing relevant")
+        ));
+
+        assertThat(engine.search(1L, "milk", true, 10)).containsExactly(2L, 1L);
+        assertThat(engine.search(1L, "milk", false, 10)).containsExactly(2L);
+        verify(noteRepository, times(1)).findSearchDocumentsByOwnerId(1L);
+    }
+
+    @Test
+    void search_shouldRequireAllTermsAndMatchPrefixes() {
+        when(noteRepository.findSearchDocumentsByOwnerId(1L)).thenReturn(List.of(
+                new NoteSearchDocument(1L, 1L, "Searchable note", "This note is for searching"),
+                new NoteSearchDocument(2L, 1L, "Other note", "Unrelated")
+        ));
+
+        assertThat(engine.search(1L, "Search", true, 10)).containsExactly(1L);
+        assertThat(engine.search(1L, "note unrelated", true, 10)).containsExactly(2L);
+        assertThat(engine.search(1L, "note missing", true, 10)).isEmpty();
+    }
+
+    @Test
+    void indexAndRemove_shouldKeepLoadedOwnerCurrent() {
+        when(noteRepository.findSearchDocumentsByOwnerId(1L)).thenReturn(List.of());
+        assertThat(engine.search(1L, "plan", true, 10)).isEmpty();
+
+        engine.index(new NoteSearchDocument(5L, 1L, "Travel plan", "Flights"));
+        assertThat(engine.search(1L, "plan", true, 10)).containsExactly(5L);
+
+        engine.index(new NoteSearchDocument(5L, 1L, "Travel", "Hotels"));
+        assertThat(engine.search(1L, "plan", true, 10)).isEmpty();
+
+        engine.remove(1L, 5L);
+        assertThat(engine.search(1L, "travel", true, 10)).isEmpty();
+    }
+
+    @Test
+    void search_shouldIsolateOwners() {
+        when(noteRepository.findSearchDocumentsByOwnerId(1L)).thenReturn(List.of(
+                new NoteSearchDocument(1L, 1L, "Secret", "Private")));
+        when(noteRepository.findSearchDocumentsByOwnerId(2L)).thenReturn(List.of());
+
+        assertThat(engine.search(2L, "secret", true, 10)).isEmpty();
+        assertThat(engine.search(1L, "secret", true, 10)).containsExactly(1L);
+    }
+
+    @Test
+    void search_afterIdleTtl_shouldReloadOwner() {
+        var clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        var expiring = new InMemoryNoteSearchEngine(noteRepository, 100, Duration.ofMinutes(30), clock);
+        when(noteRepository.findSearchDocumentsByOwnerId(1L)).thenReturn(List.of(
+                new NoteSearchDocument(1L, 1L, "Milk", "")));
+
+        expiring.search(1L, "milk", true, 10);
+        clock.now = clock.now.plus(Duration.ofMinutes(20));
+        expiring.search(1L, "milk", true, 10);
+        verify(noteRepository, times(1)).findSearchDocumentsByOwnerId(1L);
+
+        clock.now = clock.now.plus(Duration.ofMinutes(31));
+        assertThat(expiring.search(1L, "milk", true, 10)).containsExactly(1L);
+        verify(noteRepository, times(2)).findSearchDocumentsByOwnerId(1L);
+    }
+
+    @Test
+    void search_beyondMaxOwners_shouldDropOtherOwners() {
+        var small = new InMemoryNoteSearchEngine(noteRepository, 2, Duration.ofMinutes(30));
+        when(noteRepository.findSearchDocumentsByOwnerId(anyLong())).thenReturn(List.of());
+
+        small.search(1L, "milk", true, 10);
+        small.search(2L, "milk", true, 10);
+        small.search(3L, "milk", true, 10);
+        small.search(3L, "milk", true, 10);
+        small.search(1L, "milk", true, 10);
+        small.search(2L, "milk", true, 10);
+
+        verify(noteRepository, times(1)).findSearchDocumentsByOwnerId(3L);
+        verify(noteRepository, times(5)).findSearchDocumentsByOwnerId(anyLong());
+    }
+
+    private static final class MutableClock extends Clock {
+        Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
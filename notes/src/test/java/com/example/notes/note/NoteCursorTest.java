@@ -0,0 +1,26 @@
+package com.example.notes.note;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+class NoteCursorTest {
+
+    @Test
+    void encodeDecode_shouldRoundTrip() {
+        NoteCursor cursor = new NoteCursor(true, Instant.parse("2024-05-01T10:15:30.123456Z"), 42L);
+
+        assertThat(NoteCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_shouldRejectMalformedTokens() {
+        assertThatThrownBy(() -> NoteCursor.decode("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> NoteCursor.decode("%%%"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
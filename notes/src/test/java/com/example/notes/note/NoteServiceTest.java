@@ -3,17 +3,28 @@ package com.example.notes.note;
 import com.example.notes.audit.AuditService;
 import com.example.notes.common.NotFoundException;
 import com.example.notes.tag.Tag;
+import com.example.notes.tag.TagFilter;
 import com.example.notes.tag.TagService;
 import com.example.notes.user.User;
 import com.example.notes.user.UserService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class NoteServiceTest {
@@ -22,9 +33,11 @@ class NoteServiceTest {
     private final UserService userService = mock(UserService.class);
     private final TagService tagService = mock(TagService.class);
     private final AuditService auditService = mock(AuditService.class);
+    private final NoteSearchEngine searchEngine = mock(NoteSearchEngine.class);
+    private final NoteCounterService counterService = mock(NoteCounterService.class);
 
     private final NoteService noteService =
-            new NoteService(noteRepository, userService, tagService, auditService);
+            new NoteService(noteRepository, userService, tagService, auditService, searchEngine, counterService, 2);
 
     @Test
     void createNote_shouldSaveAndReturnNote() {
@@ -38,6 +51,8 @@ class NoteServiceTest {
 
         assertThat(saved.getId()).isEqualTo(100L);
         verify(auditService).record(eq(1L), eq("CREATE_NOTE"), eq("NOTE"), eq(100L), anyString());
+        verify(searchEngine).index(new NoteSearchDocument(100L, 1L, "Test", "Content"));
+        verify(counterService).apply(eq(1L), any(NoteCounterDelta.class));
     }
 
     @Test
@@ -61,4 +76,85 @@ class NoteServiceTest {
 
         assertThat(updated.getTags()).extracting("id").contains(5L);
     }
+
+    @Test
+    void setTags_shouldKeepUnchangedTagsAndApplyOnlyTheDifference() {
+        User user = User.builder().id(1L).build();
+        Tag kept = Tag.builder().id(5L).ownerId(1L).name("kept").build();
+        Tag dropped = Tag.builder().id(6L).ownerId(1L).name("dropped").build();
+        Tag added = Tag.builder().id(7L).ownerId(1L).name("added").build();
+        java.util.Set<Tag> tags = new java.util.HashSet<>(java.util.List.of(kept, dropped));
+        Note note = Note.builder().id(10L).owner(user).tags(tags).build();
+
+        when(noteRepository.findById(10L)).thenReturn(Optional.of(note));
+        when(tagService.getOwnedTagsOrThrow(1L, java.util.List.of(5L, 7L))).thenReturn(java.util.List.of(kept, added));
+        when(noteRepository.save(any(Note.class))).thenReturn(note);
+
+        Note updated = noteService.setTags(1L, 10L, java.util.List.of(5L, 7L));
+
+        assertThat(updated.getTags()).isSameAs(tags);
+        assertThat(updated.getTags()).containsExactlyInAnyOrder(kept, added);
+    }
+
+    @Test
+    void listNotes_shouldPageRankedMatchesPastTheFirstSearchWindow() {
+        User user = User.builder().id(1L).build();
+        List<Long> ranked = List.of(5L, 4L, 3L, 2L, 1L);
+        when(userService.getByIdOrThrow(1L)).thenReturn(user);
+        when(searchEngine.search(eq(1L), eq("groceries"), eq(true), anyInt()))
+                .thenAnswer(invocation -> ranked.subList(0, Math.min(invocation.<Integer>getArgument(3), ranked.size())));
+        when(noteRepository.findIds(any())).thenReturn(ranked);
+        when(noteRepository.findByIdIn(List.of(1L))).thenReturn(List.of(Note.builder().id(1L).owner(user).build()));
+
+        Slice<Note> page = noteService.listNotes(1L, PageRequest.of(2, 2), null, null, null,
+                "groceries", true, new TagFilter(null, null, null), NoteCountMode.EXACT);
+
+        assertThat(page.getContent()).extracting(Note::getId).containsExactly(1L);
+        assertThat(page).isInstanceOfSatisfying(Page.class, counted -> assertThat(counted.getTotalElements()).isEqualTo(5));
+    }
+
+    @Test
+    void listNotes_shouldSortEveryMatchWhenTheyExceedTheSearchWindow() {
+        User user = User.builder().id(1L).build();
+        List<Long> matches = LongStream.rangeClosed(1, 1500).boxed().toList();
+        when(userService.getByIdOrThrow(1L)).thenReturn(user);
+        when(searchEngine.search(1L, "groceries", true, Integer.MAX_VALUE)).thenReturn(matches);
+        // Each IN list chunk comes back sorted by the database
+        doReturn(List.of(note(7L, "b", user), note(3L, "d", user)),
+                List.of(note(1200L, "a", user), note(1300L, "c", user)))
+                .when(noteRepository).findBy(any(Specification.class), any());
+
+        Slice<Note> page = noteService.listNotes(1L, PageRequest.of(0, 2, Sort.by("title")), null, null, null,
+                "groceries", true, new TagFilter(null, null, null), NoteCountMode.EXACT);
+
+        assertThat(page.getContent()).extracting(Note::getId).containsExactly(1200L, 7L);
+        assertThat(page).isInstanceOfSatisfying(Page.class, counted -> assertThat(counted.getTotalElements()).isEqualTo(4));
+        verify(noteRepository, times(2)).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    void listNotesAfter_shouldContinueThroughMatchesBeyondTheSearchWindow() {
+        User user = User.builder().id(1L).build();
+        List<Long> matches = LongStream.rangeClosed(1, 1500).boxed().toList();
+        Instant now = Instant.parse("2026-10-01T00:00:00Z");
+        when(userService.getByIdOrThrow(1L)).thenReturn(user);
+        when(searchEngine.search(1L, "groceries", true, Integer.MAX_VALUE)).thenReturn(matches);
+        doReturn(List.of(note(7L, "b", user, now.minusSeconds(10)), note(3L, "d", user, now.minusSeconds(30))),
+                List.of(note(1200L, "a", user, now), note(1300L, "c", user, now.minusSeconds(20))))
+                .when(noteRepository).findBy(any(Specification.class), any());
+
+        NoteCursorPage page = noteService.listNotesAfter(1L, null, 2, null, null, null,
+                "groceries", true, new TagFilter(null, null, null));
+
+        assertThat(page.notes()).extracting(Note::getId).containsExactly(1200L, 7L);
+        assertThat(page.next()).isEqualTo(new NoteCursor(false, now.minusSeconds(10), 7L));
+    }
+
+    private static Note note(Long id, String title, User owner, Instant updatedAt) {
+        return Note.builder().id(id).title(title).owner(owner).updatedAt(updatedAt).build();
+    }
+
+    private static Note note(Long id, String title, User owner) {
+        return Note.builder().id(id).title(title).owner(owner).build();
+    }
 }
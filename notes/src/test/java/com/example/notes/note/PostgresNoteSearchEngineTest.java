@@ -0,0 +1,37 @@
+package com.example.notes.note;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class PostgresNoteSearchEngineTest {
+
+    private final NoteRepository noteRepository = mock(NoteRepository.class);
+    private final PostgresNoteSearchEngine engine = new PostgresNoteSearchEngine(noteRepository);
+
+    @Test
+    void toTsQuery_shouldBuildPrefixAndQueryWithoutOperators() {
+        assertThat(PostgresNoteSearchEngine.toTsQuery("Milk & (bread)!", true)).isEqualTo("milk:* & bread:*");
+        assertThat(PostgresNoteSearchEngine.toTsQuery("milk", false)).isEqualTo("milk:*A");
+        assertThat(PostgresNoteSearchEngine.toTsQuery("&|!", true)).isEmpty();
+    }
+
+    @Test
+    void search_shouldDelegateToRankedQuery() {
+        when(noteRepository.searchRankedIds(1L, "milk:*", 50)).thenReturn(List.of(3L, 1L));
+
+        assertThat(engine.search(1L, "milk", true, 50)).containsExactly(3L, 1L);
+        assertThat(engine.search(1L, "  ", true, 50)).isEmpty();
+        verify(noteRepository, times(1)).searchRankedIds(anyLong(), anyString(), anyInt());
+    }
+
+    @Test
+    void search_shouldPassTheRequestedWindowThrough() {
+        when(noteRepository.searchRankedIds(1L, "milk:*", 4000)).thenReturn(List.of(3L, 1L));
+
+        assertThat(engine.search(1L, "milk", true, 4000)).containsExactly(3L, 1L);
+    }
+}
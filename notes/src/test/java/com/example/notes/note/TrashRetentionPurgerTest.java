@@ -0,0 +1,79 @@
+package com.example.notes.note;
+
+import com.example.notes.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = "test.security.mock=true")
+class TrashRetentionPurgerTest {
+
+    @Autowired
+    private TrashRetentionPurger purger;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private NoteActionService noteActionService;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteBulkDeleter bulkDeleter;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void purge_shouldDeleteOnlyNotesTrashedBeforeCutoff() {
+        Long ownerId = userService.findByUsernameOrThrow("testuser").getId();
+        Long expired = noteService.createNote(ownerId, "Old trash", "content").getId();
+        Long recent = noteService.createNote(ownerId, "New trash", "content").getId();
+        Long restored = noteService.createNote(ownerId, "Restored", "content").getId();
+        noteActionService.moveToTrash(ownerId, expired);
+        noteActionService.moveToTrash(ownerId, recent);
+        noteActionService.moveToTrash(ownerId, restored);
+        noteActionService.restoreFromTrash(ownerId, restored);
+        backdateTrash(expired, Duration.ofDays(40));
+
+        purger.purge(Instant.now().minus(Duration.ofDays(30)));
+
+        assertThat(noteRepository.findById(expired)).isEmpty();
+        assertThat(noteRepository.findById(recent)).get()
+                .satisfies(note -> assertThat(note.getTrashedAt()).isNotNull());
+        assertThat(noteRepository.findById(restored)).get()
+                .satisfies(note -> assertThat(note.getTrashedAt()).isNull());
+    }
+
+    @Test
+    void deleteTrashedBefore_shouldSkipNotesTrashedAgainAfterTheCutoff() {
+        Long ownerId = userService.findByUsernameOrThrow("testuser").getId();
+        Long retrashed = noteService.createNote(ownerId, "Trashed again", "content").getId();
+        noteActionService.moveToTrash(ownerId, retrashed);
+        Instant cutoff = Instant.now().minus(Duration.ofDays(30));
+        backdateTrash(retrashed, Duration.ofDays(40));
+        // Listed as expired, then restored and trashed again before its chunk is deleted
+        noteActionService.restoreFromTrash(ownerId, retrashed);
+        noteActionService.moveToTrash(ownerId, retrashed);
+
+        var result = bulkDeleter.deleteTrashedBefore(ownerId, java.util.List.of(retrashed), cutoff);
+
+        assertThat(result.deleted()).isZero();
+        assertThat(noteRepository.findById(retrashed)).isPresent();
+    }
+
+    private void backdateTrash(Long noteId, Duration age) {
+        Note note = noteRepository.findById(noteId).orElseThrow();
+        note.setTrashedAt(Instant.now().minus(age));
+        noteRepository.save(note);
+    }
+}
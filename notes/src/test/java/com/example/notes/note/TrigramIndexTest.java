@@ -0,0 +1,47 @@
+package com.example.notes.note;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    private Set<Long> candidates(String fragment) {
+        Set<Long> result = new HashSet<>();
+        index.candidates(fragment, result);
+        return result;
+    }
+
+    @Test
+    void candidates_shouldMatchFragmentsInsideWords() {
+        index.put(1L, "Quarterly Budget");
+        index.put(2L, "Shopping list");
+
+        assertThat(candidates("udge")).containsExactly(1L);
+        assertThat(candidates("PPI")).containsExactly(2L);
+        assertThat(candidates("xyz")).isEmpty();
+    }
+
+    @Test
+    void candidates_shouldHandleFragmentsShorterThanATrigram() {
+        index.put(1L, "ab");
+        index.put(2L, "cab");
+        index.put(3L, "xyz");
+
+        assertThat(candidates("ab")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(candidates("b")).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void remove_shouldDropPostings() {
+        index.put(1L, "meeting notes");
+        index.remove(1L);
+
+        assertThat(candidates("meet")).isEmpty();
+    }
+}
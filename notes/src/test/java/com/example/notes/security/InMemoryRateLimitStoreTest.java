@@ -0,0 +1,67 @@
+package com.example.notes.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimitStoreTest {
+
+    private static final RateLimitPolicy POLICY = new RateLimitPolicy("test", 10, Duration.ofSeconds(10), 3);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final InMemoryRateLimitStore store = new InMemoryRateLimitStore(100, clock::get);
+
+    @Test
+    void acquire_shouldAllowBurstThenRejectUntilRefilled() {
+        assertThat(store.acquire("a", POLICY).remaining()).isEqualTo(2);
+        assertThat(store.acquire("a", POLICY).allowed()).isTrue();
+        assertThat(store.acquire("a", POLICY).allowed()).isTrue();
+
+        RateLimitDecision rejected = store.acquire("a", POLICY);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterNanos()).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(store.acquire("a", POLICY).allowed()).isTrue();
+        assertThat(store.acquire("a", POLICY).allowed()).isFalse();
+    }
+
+    @Test
+    void acquire_shouldKeepKeysIndependent() {
+        for (int i = 0; i < 3; i++) {
+            store.acquire("a", POLICY);
+        }
+
+        assertThat(store.acquire("a", POLICY).allowed()).isFalse();
+        assertThat(store.acquire("b", POLICY).allowed()).isTrue();
+    }
+
+    @Test
+    void sweep_shouldDropOnlyRefilledBuckets() {
+        store.acquire("a", POLICY);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        store.acquire("b", POLICY);
+
+        store.sweep();
+
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void acquire_shouldShareOverflowBucketWhenKeyTableIsFull() {
+        InMemoryRateLimitStore small = new InMemoryRateLimitStore(2, clock::get);
+        small.acquire("a", POLICY);
+        small.acquire("b", POLICY);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(small.acquire("spray-" + i, POLICY).allowed()).isTrue();
+        }
+
+        assertThat(small.acquire("spray-3", POLICY).allowed()).isFalse();
+        assertThat(small.size()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.notes.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = "test.security.mock=true")
+class JdbcRateLimitStoreTest {
+
+    private static final Instant WINDOW_START = Instant.parse("2030-01-01T00:00:00Z");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void acquire_shouldShareLimitBetweenInstancesAfterFlush() {
+        RateLimitPolicy policy = new RateLimitPolicy("shared", 5, Duration.ofMinutes(1), 5);
+        JdbcRateLimitStore first = store(WINDOW_START);
+        JdbcRateLimitStore second = store(WINDOW_START);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(first.acquire("user:a", policy).allowed()).isTrue();
+        }
+        first.flush();
+        second.acquire("user:a", policy);
+        second.flush();
+
+        assertThat(second.acquire("user:a", policy).allowed()).isTrue();
+        RateLimitDecision rejected = second.acquire("user:a", policy);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterNanos()).isPositive();
+    }
+
+    @Test
+    void acquire_shouldWeighPreviousWindowBySlidingEstimate() {
+        RateLimitPolicy policy = new RateLimitPolicy("sliding", 10, Duration.ofMinutes(1), 10);
+        JdbcRateLimitStore earlier = store(WINDOW_START);
+        for (int i = 0; i < 10; i++) {
+            earlier.acquire("user:a", policy);
+        }
+        earlier.flush();
+
+        // Halfway through the next window half of the previous window's requests still count
+        JdbcRateLimitStore later = store(WINDOW_START.plusSeconds(90));
+        assertThat(later.acquire("user:a", policy).allowed()).isTrue();
+        later.flush();
+
+        int allowed = 0;
+        while (later.acquire("user:a", policy).allowed()) {
+            allowed++;
+        }
+        assertThat(allowed).isEqualTo(4);
+    }
+
+    @Test
+    void flush_shouldRefreshIdleBucketsOnceTheyAreUsedAgain() {
+        RateLimitPolicy policy = new RateLimitPolicy("idle", 5, Duration.ofMinutes(1), 5);
+        JdbcRateLimitStore observer = store(WINDOW_START);
+        JdbcRateLimitStore other = store(WINDOW_START);
+        observer.acquire("user:a", policy);
+        observer.flush();
+
+        for (int i = 0; i < 3; i++) {
+            other.acquire("user:a", policy);
+        }
+        other.flush();
+        // Not used since the last flush, so its total is not read back
+        observer.flush();
+        assertThat(observer.acquire("user:a", policy).allowed()).isTrue();
+        observer.flush();
+
+        assertThat(observer.acquire("user:a", policy).allowed()).isFalse();
+    }
+
+    private JdbcRateLimitStore store(Instant now) {
+        return new JdbcRateLimitStore(dataSource, 1000, Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
@@ -14,6 +14,8 @@ import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -39,12 +41,13 @@ class JwtAuthFilterTest {
         MockHttpServletResponse response = new MockHttpServletResponse();
         MockFilterChain chain = new MockFilterChain();
 
-        when(jwtService.isValid("valid-token")).thenReturn(true);
-        when(jwtService.extractUsername("valid-token")).thenReturn("john");
+        JwtClaims claims = new JwtClaims("jti-1", "john", Instant.now(), Instant.now().plusSeconds(60));
+        when(jwtService.parse("valid-token")).thenReturn(Optional.of(claims));
+        when(tokenBlacklistService.isBlacklisted(claims)).thenReturn(false);
 
         User user = User.builder().id(1L).username("john").roles(Set.of("ROLE_USER")).build();
         AppUserDetails userDetails = new AppUserDetails(user);
-        when(userService.loadUserByUsername("john")).thenReturn(userDetails);
+        when(userService.loadPrincipal("john")).thenReturn(userDetails);
 
         filter.doFilterInternal(request, response, chain);
 
@@ -53,6 +56,8 @@ class JwtAuthFilterTest {
                 .isInstanceOf(AppUserDetails.class);
         assertThat(((AppUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal())
                 .getUsername()).isEqualTo("john");
+        verify(jwtService, times(1)).parse("valid-token");
+        verifyNoMoreInteractions(jwtService);
     }
 
     @Test
@@ -74,13 +79,12 @@ class JwtAuthFilterTest {
         MockHttpServletResponse response = new MockHttpServletResponse();
         MockFilterChain chain = new MockFilterChain();
 
-        when(jwtService.isValid("invalid-token")).thenReturn(false);
+        when(jwtService.parse("invalid-token")).thenReturn(Optional.empty());
 
         filter.doFilterInternal(request, response, chain);
 
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
-        verify(jwtService).isValid("invalid-token");
-        verify(jwtService, never()).extractUsername(any());
-        verifyNoInteractions(userService);
+        verify(jwtService).parse("invalid-token");
+        verifyNoInteractions(userService, tokenBlacklistService);
     }
 }
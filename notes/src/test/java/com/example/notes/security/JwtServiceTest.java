@@ -32,6 +32,27 @@ class JwtServiceTest {
         assertThat(jwtService.isValid("invalid.token.value")).isFalse();
     }
 
+    @Test
+    void parse_shouldReturnVerifiedClaims() {
+        String token = jwtService.generateToken("john");
+
+        JwtClaims claims = jwtService.parse(token).orElseThrow();
+
+        assertThat(claims.username()).isEqualTo("john");
+        assertThat(claims.tokenId()).isNotBlank();
+        assertThat(claims.expiresAt()).isAfter(claims.issuedAt());
+        // Second parse is served from the cache
+        assertThat(jwtService.parse(token)).containsSame(claims);
+    }
+
+    @Test
+    void parse_shouldRejectTokenSignedWithAnotherKey() {
+        JwtService other = new JwtService("another-secret-key-another-secret-key", expirationMs);
+        String token = other.generateToken("john");
+
+        assertThat(jwtService.parse(token)).isEmpty();
+    }
+
     @Test
     void constructor_shouldFailFastWhenSecretIsBlank() {
         assertThatThrownBy(() -> new JwtService("", expirationMs))
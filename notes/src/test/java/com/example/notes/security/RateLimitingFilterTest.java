@@ -0,0 +1,93 @@
+package com.example.notes.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitingFilterTest {
+
+    private final RateLimitProperties properties = new RateLimitProperties("memory", 1000,
+            new RateLimitProperties.Policy(2, Duration.ofMinutes(1), null),
+            new RateLimitProperties.Policy(5, Duration.ofMinutes(1), null),
+            List.of(),
+            List.of(new RateLimitProperties.Route("auth", List.of("/api/auth/**"), "POST", null, 1, Duration.ofMinutes(1), null)));
+    private final RateLimitStore store = new InMemoryRateLimitStore(1000);
+    private final RateLimitingFilter ipFilter =
+            new RateLimitingFilter(RateLimitingFilter.Stage.IP, store, properties, new ObjectMapper());
+    private final RateLimitingFilter userFilter =
+            new RateLimitingFilter(RateLimitingFilter.Stage.USER, store, properties, new ObjectMapper());
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_shouldReportTighterLimitAcrossStages() throws ServletException, IOException {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "john", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notes");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ipFilter.doFilter(request, response, (req, res) -> userFilter.doFilter(req, res, new MockFilterChain()));
+
+        assertThat(response.getHeader(RateLimitingFilter.LIMIT_HEADER)).isEqualTo("2");
+        assertThat(response.getHeader(RateLimitingFilter.REMAINING_HEADER)).isEqualTo("1");
+        assertThat(response.getHeader(RateLimitingFilter.RESET_HEADER)).isNotNull();
+    }
+
+    @Test
+    void doFilter_shouldAnswer429WithRetryAfterWithoutCallingChain() throws ServletException, IOException {
+        for (int i = 0; i < 2; i++) {
+            ipFilter.doFilter(new MockHttpServletRequest("GET", "/api/notes"), new MockHttpServletResponse(), new MockFilterChain());
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        ipFilter.doFilter(new MockHttpServletRequest("GET", "/api/notes"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("30");
+        assertThat(response.getHeader(RateLimitingFilter.REMAINING_HEADER)).isEqualTo("0");
+        assertThat(response.getContentAsString()).contains("rate_limited");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void doFilter_shouldLeaveAnonymousRequestsToIpStage() throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        userFilter.doFilter(new MockHttpServletRequest("GET", "/api/notes"), response, chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(response.getHeader(RateLimitingFilter.LIMIT_HEADER)).isNull();
+    }
+
+    @Test
+    void doFilter_shouldHoldAnonymousAuthRequestsToTheirIpRoute() throws ServletException, IOException {
+        ipFilter.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse login = new MockHttpServletResponse();
+        MockHttpServletResponse notes = new MockHttpServletResponse();
+
+        ipFilter.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), login, new MockFilterChain());
+        ipFilter.doFilter(new MockHttpServletRequest("GET", "/api/notes"), notes, new MockFilterChain());
+
+        assertThat(login.getStatus()).isEqualTo(429);
+        assertThat(notes.getStatus()).isEqualTo(200);
+        assertThat(notes.getHeader(RateLimitingFilter.LIMIT_HEADER)).isEqualTo("2");
+    }
+}
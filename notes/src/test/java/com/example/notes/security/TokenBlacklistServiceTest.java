@@ -0,0 +1,110 @@
+package com.example.notes.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenBlacklistServiceTest {
+
+    private final TokenBlacklistRepository repository = mock(TokenBlacklistRepository.class);
+    private final JwtService jwtService = mock(JwtService.class);
+
+    private final InProcessRevocationChannel channel = new InProcessRevocationChannel();
+
+    private final TokenBlacklistService service = new TokenBlacklistService(repository, jwtService, channel);
+
+    @BeforeEach
+    void setUp() {
+        service.subscribeToRevocations();
+    }
+
+    @Test
+    void isBlacklisted_shouldQueryDatabaseUntilFilterIsLoaded() {
+        when(repository.findByJti("jti-1")).thenReturn(Optional.empty());
+
+        assertThat(service.isBlacklisted(claims("jti-1"))).isFalse();
+
+        verify(repository).findByJti("jti-1");
+    }
+
+    @Test
+    void isBlacklisted_shouldSkipDatabaseForUnknownJti() {
+        when(repository.findActiveJtis(any())).thenReturn(List.of("revoked"));
+        service.rebuildFilter();
+
+        assertThat(service.isBlacklisted(claims("fresh"))).isFalse();
+
+        verify(repository, never()).findByJti(any());
+    }
+
+    @Test
+    void isBlacklisted_shouldConfirmProbableHitsInDatabase() {
+        when(repository.findActiveJtis(any())).thenReturn(List.of());
+        service.rebuildFilter();
+        JwtClaims revoked = claims("revoked");
+        when(jwtService.parse("token")).thenReturn(Optional.of(revoked));
+        when(repository.findByJti("revoked")).thenReturn(Optional.of(TokenBlacklistEntry.builder().jti("revoked").build()));
+
+        service.blacklistToken("token");
+
+        assertThat(service.isBlacklisted(revoked)).isTrue();
+        verify(repository).save(any(TokenBlacklistEntry.class));
+    }
+
+    @Test
+    void isBlacklisted_shouldPickUpRevocationsPublishedByOtherInstances() {
+        when(repository.findActiveJtis(any())).thenReturn(List.of());
+        service.rebuildFilter();
+        when(repository.findByJti("remote")).thenReturn(Optional.of(TokenBlacklistEntry.builder().jti("remote").build()));
+
+        channel.publish("remote");
+
+        assertThat(service.isBlacklisted(claims("remote"))).isTrue();
+        verify(repository).findByJti("remote");
+    }
+
+    @Test
+    void rebuildFilter_shouldKeepRevocationsPublishedWhileLoading() {
+        when(repository.findActiveJtis(any())).thenAnswer(invocation -> {
+            channel.publish("mid-rebuild");
+            return List.of();
+        });
+        when(repository.findByJti("mid-rebuild")).thenReturn(Optional.of(TokenBlacklistEntry.builder().jti("mid-rebuild").build()));
+
+        service.rebuildFilter();
+
+        assertThat(service.isBlacklisted(claims("mid-rebuild"))).isTrue();
+    }
+
+    @Test
+    void rebuildFilter_shouldNotOverlapConcurrentRebuilds() throws Exception {
+        Thread[] second = new Thread[1];
+        when(repository.findActiveJtis(any())).thenAnswer(invocation -> {
+            second[0] = new Thread(service::rebuildFilter);
+            second[0].start();
+            for (int attempt = 0; attempt < 50 && second[0].getState() == Thread.State.RUNNABLE; attempt++) {
+                Thread.sleep(100);
+            }
+            channel.publish("mid-rebuild");
+            return List.of();
+        }).thenReturn(List.of("mid-rebuild"));
+        when(repository.findByJti("mid-rebuild")).thenReturn(Optional.of(TokenBlacklistEntry.builder().jti("mid-rebuild").build()));
+
+        service.rebuildFilter();
+        second[0].join(5_000);
+
+        assertThat(service.isBlacklisted(claims("mid-rebuild"))).isTrue();
+        verify(repository, times(2)).findActiveJtis(any());
+    }
+
+    private static JwtClaims claims(String jti) {
+        return new JwtClaims(jti, "john", Instant.now(), Instant.now().plusSeconds(3600));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.notes.tag;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TagNoteIndexTest {
+
+    private final TagRepository tagRepository = mock(TagRepository.class);
+    private final TagNoteIndex index = new TagNoteIndex(tagRepository, true, 100, Duration.ofMinutes(10));
+
+    @Test
+    void match_shouldIntersectUnionAndExclude() {
+        when(tagRepository.findNoteTagLinksByOwnerId(1L)).thenReturn(List.of(
+                new NoteTagLink(10L, 1L), new NoteTagLink(10L, 2L),
+                new NoteTagLink(11L, 1L), new NoteTagLink(11L, 3L),
+                new NoteTagLink(12L, 2L)));
+
+        assertThat(ids(index.match(1L, new TagFilter(List.of(1L, 2L), null, null)).notes())).containsExactly(10L);
+        assertThat(ids(index.match(1L, new TagFilter(null, List.of(2L, 3L), null)).notes()))
+                .containsExactly(10L, 11L, 12L);
+        assertThat(ids(index.match(1L, new TagFilter(List.of(1L), List.of(2L, 3L), List.of(3L))).notes()))
+                .containsExactly(10L);
+
+        TagMatch excludeOnly = index.match(1L, new TagFilter(null, null, List.of(2L)));
+        assertThat(excludeOnly.notes()).isNull();
+        assertThat(ids(excludeOnly.excludedNotes())).containsExactly(10L, 12L);
+
+        verify(tagRepository, times(1)).findNoteTagLinksByOwnerId(1L);
+    }
+
+    @Test
+    void match_withUnknownTag_shouldMatchNothing() {
+        when(tagRepository.findNoteTagLinksByOwnerId(1L)).thenReturn(List.of(new NoteTagLink(10L, 1L)));
+
+        assertThat(index.match(1L, new TagFilter(List.of(1L, 99L), null, null)).notes().isEmpty()).isTrue();
+    }
+
+    @Test
+    void updates_shouldApplyToLoadedOwners() {
+        when(tagRepository.findNoteTagLinksByOwnerId(1L)).thenReturn(List.of(new NoteTagLink(10L, 1L)));
+        index.match(1L, new TagFilter(List.of(1L), null, null));
+
+        index.linked(1L, List.of(11L, 12L), List.of(1L, 2L));
+        index.unlinked(1L, List.of(10L), List.of(1L));
+        index.notesRemoved(1L, List.of(12L));
+        index.tagRemoved(1L, 2L);
+
+        assertThat(ids(index.match(1L, new TagFilter(List.of(1L), null, null)).notes())).containsExactly(11L);
+        assertThat(index.match(1L, new TagFilter(List.of(2L), null, null)).notes().isEmpty()).isTrue();
+        verify(tagRepository, times(1)).findNoteTagLinksByOwnerId(1L);
+    }
+
+    @Test
+    void match_shouldReturnCopiesThatDoNotAlterTheIndex() {
+        when(tagRepository.findNoteTagLinksByOwnerId(1L)).thenReturn(List.of(new NoteTagLink(10L, 1L)));
+
+        index.match(1L, new TagFilter(List.of(1L), null, null)).notes().addLong(99L);
+
+        assertThat(ids(index.match(1L, new TagFilter(List.of(1L), null, null)).notes())).containsExactly(10L);
+    }
+
+    @Test
+    void match_afterTtl_shouldReloadFromDatabase() {
+        var clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        var expiring = new TagNoteIndex(tagRepository, true, 100, Duration.ofMinutes(10), clock);
+        when(tagRepository.findNoteTagLinksByOwnerId(1L))
+                .thenReturn(List.of(new NoteTagLink(10L, 1L)))
+                .thenReturn(List.of(new NoteTagLink(11L, 1L)));
+        TagFilter filter = new TagFilter(List.of(1L), null, null);
+
+        assertThat(ids(expiring.match(1L, filter).notes())).containsExactly(10L);
+        clock.now = clock.now.plus(Duration.ofMinutes(11));
+        assertThat(ids(expiring.match(1L, filter).notes())).containsExactly(11L);
+    }
+
+    private static List<Long> ids(Roaring64Bitmap bitmap) {
+        return java.util.Arrays.stream(bitmap.toArray()).boxed().toList();
+    }
+
+    private static final class MutableClock extends Clock {
+        Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.example.notes.common.ConflictException;
 import com.example.notes.common.NotFoundException;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.List;
 
@@ -13,7 +14,8 @@ import static org.mockito.Mockito.*;
 class TagServiceTest {
 
     private final TagRepository tagRepository = mock(TagRepository.class);
-    private final TagService tagService = new TagService(tagRepository);
+    private final TagService tagService = new TagService(tagRepository, new TagCache(100, Duration.ofMinutes(1)),
+            new TagNoteIndex(tagRepository, true, 100, Duration.ofMinutes(1)));
 
     @Test
     void createTag_shouldSaveTag() {
@@ -47,10 +49,84 @@ class TagServiceTest {
     @Test
     void getOwnedTagOrThrow_shouldReturnTag() {
         Tag tag = Tag.builder().id(5L).ownerId(1L).name("tag").build();
-        when(tagRepository.findById(5L)).thenReturn(Optional.of(tag));
+        when(tagRepository.findByOwnerId(1L)).thenReturn(List.of(tag));
 
         Tag found = tagService.getOwnedTagOrThrow(1L, 5L);
 
         assertThat(found.getId()).isEqualTo(5L);
     }
+
+    @Test
+    void getOwnedTagsOrThrow_shouldResolveAllTagsInRequestOrder() {
+        Tag first = Tag.builder().id(5L).ownerId(1L).name("a").build();
+        Tag second = Tag.builder().id(6L).ownerId(1L).name("b").build();
+        when(tagRepository.findByOwnerId(1L)).thenReturn(List.of(second, first));
+
+        List<Tag> found = tagService.getOwnedTagsOrThrow(1L, List.of(5L, 6L, 5L));
+
+        assertThat(found).extracting(Tag::getId).containsExactly(5L, 6L);
+        verify(tagRepository, times(1)).findByOwnerId(1L);
+    }
+
+    @Test
+    void getOwnedTagsOrThrow_shouldReportAllMissingIds() {
+        Tag owned = Tag.builder().id(5L).ownerId(1L).name("a").build();
+        when(tagRepository.findByOwnerId(1L)).thenReturn(List.of(owned));
+
+        assertThatThrownBy(() -> tagService.getOwnedTagsOrThrow(1L, List.of(5L, 6L, 7L)))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("6")
+                .hasMessageContaining("7");
+    }
+
+    @Test
+    void getOwnedTagOrThrow_shouldRejectTagsOfOtherOwners() {
+        when(tagRepository.findByOwnerId(1L)).thenReturn(List.of(Tag.builder().id(5L).ownerId(1L).name("a").build()));
+
+        assertThatThrownBy(() -> tagService.getOwnedTagOrThrow(1L, 9L))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void ownershipChecks_shouldBeServedFromCacheUntilTagsChange() {
+        when(tagRepository.findByOwnerId(1L)).thenReturn(List.of(Tag.builder().id(5L).ownerId(1L).name("a").build()));
+        when(tagRepository.findByOwnerIdAndName(1L, "b")).thenReturn(Optional.empty());
+        when(tagRepository.save(any(Tag.class))).thenReturn(Tag.builder().id(6L).ownerId(1L).name("b").build());
+
+        tagService.getOwnedTagOrThrow(1L, 5L);
+        tagService.listTags(1L);
+        verify(tagRepository, times(1)).findByOwnerId(1L);
+
+        tagService.createTag(1L, "b");
+        tagService.listTags(1L);
+        verify(tagRepository, times(2)).findByOwnerId(1L);
+    }
+
+    @Test
+    void listTagsWithCounts_shouldApplyAdjustmentsWithoutRecounting() {
+        Tag first = Tag.builder().id(5L).ownerId(1L).name("a").build();
+        Tag second = Tag.builder().id(6L).ownerId(1L).name("b").build();
+        when(tagRepository.findByOwnerId(1L)).thenReturn(List.of(first, second));
+        when(tagRepository.countNotesByOwnerId(1L)).thenReturn(List.of(new TagNoteCount(5L, 3)));
+
+        assertThat(tagService.listTagsWithCounts(1L)).extracting(TagUsage::noteCount).containsExactly(3L, 0L);
+
+        tagService.noteUntagged(1L, 100L, 5L);
+        tagService.noteTagged(1L, 100L, 6L);
+        tagService.noteTagged(1L, 101L, 6L);
+
+        assertThat(tagService.listTagsWithCounts(1L)).extracting(TagUsage::noteCount).containsExactly(2L, 2L);
+        verify(tagRepository, times(1)).countNotesByOwnerId(1L);
+    }
+
+    @Test
+    void matchNotes_withIndexDisabled_shouldLeaveTheFilterToSql() {
+        var sqlOnly = new TagService(tagRepository, new TagCache(100, Duration.ofMinutes(1)),
+                new TagNoteIndex(tagRepository, false, 100, Duration.ofMinutes(1)));
+
+        sqlOnly.noteTagged(1L, 10L, 5L);
+
+        assertThat(sqlOnly.matchNotes(1L, new TagFilter(List.of(5L), null, null))).isEmpty();
+        verify(tagRepository, never()).findNoteTagLinksByOwnerId(anyLong());
+    }
 }
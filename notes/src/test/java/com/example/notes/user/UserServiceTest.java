@@ -5,6 +5,7 @@ import com.example.notes.common.NotFoundException;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
 
@@ -16,7 +17,9 @@ class UserServiceTest {
     private final UserRepository userRepository = mock(UserRepository.class);
     private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
 
-    private final UserService userService = new UserService(userRepository, passwordEncoder);
+    private final PrincipalCache principalCache = new PrincipalCache(100, Duration.ofMinutes(1));
+
+    private final UserService userService = new UserService(userRepository, passwordEncoder, principalCache);
 
     @Test
     void register_shouldSaveUser() {
@@ -151,4 +154,33 @@ class UserServiceTest {
 
         verify(userRepository).delete(user);
     }
+
+    @Test
+    void loadPrincipal_shouldServeRepeatedLookupsFromCache() {
+        User user = User.builder().id(1L).username("john").passwordHash("hash").roles(Set.of("ROLE_USER")).build();
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
+
+        AppUserDetails first = userService.loadPrincipal("john");
+        AppUserDetails second = userService.loadPrincipal("john");
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.getId()).isEqualTo(1L);
+        verify(userRepository, times(1)).findByUsername("john");
+    }
+
+    @Test
+    void changePassword_shouldEvictCachedPrincipal() {
+        User user = User.builder().id(1L).username("john").passwordHash("old-hash").roles(Set.of("ROLE_USER")).build();
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("old-pass", "old-hash")).thenReturn(true);
+        when(passwordEncoder.encode("new-pass")).thenReturn("new-hash");
+        when(userRepository.save(user)).thenReturn(user);
+        userService.loadPrincipal("john");
+
+        userService.changePassword(1L, "old-pass", "new-pass");
+
+        assertThat(userService.loadPrincipal("john").getPassword()).isEqualTo("new-hash");
+        verify(userRepository, times(2)).findByUsername("john");
+    }
 }
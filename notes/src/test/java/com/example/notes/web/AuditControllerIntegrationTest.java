@@ -0,0 +1,167 @@
+package com.example.notes.web;
+
+import com.example.notes.audit.AuditLog;
+import com.example.notes.audit.AuditLogRepository;
+import com.example.notes.user.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "test.security.mock=true")
+class AuditControllerIntegrationTest {
+
+    private static final String ENTITY_TYPE = "AUDIT_API_TEST";
+    private static final long OTHER_USER_ID = 987_654L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long testUserId;
+
+    @BeforeEach
+    void seedAuditRecords() {
+        testUserId = userRepository.findByUsername("testuser").orElseThrow().getId();
+        if (auditLogRepository.findAll().stream().anyMatch(entry -> ENTITY_TYPE.equals(entry.getEntityType()))) {
+            return;
+        }
+        Instant base = Instant.now().truncatedTo(ChronoUnit.MILLIS).minus(1, ChronoUnit.HOURS);
+        List<AuditLog> entries = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            entries.add(entry(testUserId, i % 2 == 0 ? "CREATE_NOTE" : "UPDATE_NOTE", base.plusSeconds(i)));
+        }
+        entries.add(entry(OTHER_USER_ID, "CREATE_NOTE", base.minusSeconds(1)));
+        auditLogRepository.saveAll(entries);
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void list_shouldPageThroughOwnRecordsWithCursor() throws Exception {
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        Instant previous = null;
+        int pages = 0;
+        do {
+            var request = get("/api/audit").param("entityType", ENTITY_TYPE).param("size", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.success").value(true))
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode data = objectMapper.readTree(body).get("data");
+            for (JsonNode entry : data.get("content")) {
+                assertThat(entry.get("userId").asLong()).isEqualTo(testUserId);
+                Instant timestamp = Instant.parse(entry.get("timestamp").asText());
+                if (previous != null) {
+                    assertThat(timestamp).isBefore(previous);
+                }
+                previous = timestamp;
+                assertThat(seen.add(entry.get("id").asLong())).isTrue();
+            }
+            cursor = data.get("hasNext").asBoolean() ? data.get("nextCursor").asText() : null;
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(5);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void list_shouldFilterByAction() throws Exception {
+        mockMvc.perform(get("/api/audit")
+                        .param("entityType", ENTITY_TYPE)
+                        .param("action", "UPDATE_NOTE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(2))
+                .andExpect(jsonPath("$.data.hasNext").value(false));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void list_forAnotherUser_shouldBeForbidden() throws Exception {
+        mockMvc.perform(get("/api/audit").param("userId", String.valueOf(OTHER_USER_ID)))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error.code").value("forbidden"));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER", "ADMIN"})
+    void list_asAdmin_shouldIncludeAllUsers() throws Exception {
+        mockMvc.perform(get("/api/audit").param("entityType", ENTITY_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(6))
+                .andExpect(jsonPath("$.data.content[0].userId").value(testUserId))
+                .andExpect(jsonPath("$.data.content[5].userId").value(OTHER_USER_ID));
+
+        mockMvc.perform(get("/api/audit")
+                        .param("entityType", ENTITY_TYPE)
+                        .param("userId", String.valueOf(OTHER_USER_ID)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(1))
+                .andExpect(jsonPath("$.data.content[0].userId").value(OTHER_USER_ID));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void list_withInvalidCursor_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/audit").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void export_shouldStreamNdjson() throws Exception {
+        String body = mockMvc.perform(get("/api/audit/export").param("entityType", ENTITY_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.strip().split("\n");
+        assertThat(lines).hasSize(5);
+        for (String line : lines) {
+            assertThat(objectMapper.readTree(line).get("userId").asLong()).isEqualTo(testUserId);
+        }
+    }
+
+    private static AuditLog entry(Long userId, String action, Instant timestamp) {
+        return AuditLog.builder()
+                .userId(userId)
+                .action(action)
+                .entityType(ENTITY_TYPE)
+                .entityId(1L)
+                .timestamp(timestamp)
+                .build();
+    }
+}
@@ -27,6 +27,9 @@ class NoteActionControllerIntegrationTest {
     @Autowired
     private com.example.notes.user.UserService userService;
 
+    @Autowired
+    private com.example.notes.job.JobRegistry jobRegistry;
+
     private Long noteId;
 
     @Test
@@ -73,6 +76,40 @@ class NoteActionControllerIntegrationTest {
                 .andExpect(jsonPath("$.success").value(true));
     }
 
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void emptyTrash_shouldDeleteTrashedNotesInBackground() throws Exception {
+        mockMvc.perform(post("/api/notes/{id}/trash", noteId))
+                .andExpect(status().isOk());
+
+        String body = mockMvc.perform(post("/api/notes/trash/empty"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.data.type").value("EMPTY_TRASH"))
+                .andReturn().getResponse().getContentAsString();
+        String jobId = com.jayway.jsonpath.JsonPath.read(body, "$.data.id");
+
+        var ownerId = userService.findByUsernameOrThrow("testuser").getId();
+        for (int attempt = 0; attempt < 50 && !jobRegistry.getOwnedOrThrow(ownerId, jobId).getStatus().isFinished(); attempt++) {
+            Thread.sleep(100);
+        }
+
+        mockMvc.perform(get("/api/jobs/{id}", jobId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("SUCCEEDED"))
+                .andExpect(jsonPath("$.data.processed").value(1));
+
+        mockMvc.perform(get("/api/notes/{id}", noteId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void getJob_unknownId_shouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/api/jobs/{id}", "missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error.code").value("not_found"));
+    }
+
     @org.junit.jupiter.api.BeforeEach
     void createNote() {
         var user = userService.findByUsernameOrThrow("testuser");
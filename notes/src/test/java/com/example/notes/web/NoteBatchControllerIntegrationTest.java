@@ -1,6 +1,7 @@
 package com.example.notes.web;
 
 import com.example.notes.web.dto.NoteBatchRequest;
+import com.example.notes.web.dto.NoteBatchTagRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +33,9 @@ class NoteBatchControllerIntegrationTest {
     @Autowired
     private com.example.notes.user.UserService userService;
 
+    @Autowired
+    private com.example.notes.tag.TagService tagService;
+
     private Long note1;
     private Long note2;
 
@@ -47,6 +51,34 @@ class NoteBatchControllerIntegrationTest {
                 .andExpect(jsonPath("$.success").value(true));
     }
 
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void archiveNotes_shouldUpdateAllInRequestOrder() throws Exception {
+        NoteBatchRequest request = new NoteBatchRequest(List.of(note2, note1));
+
+        mockMvc.perform(post("/api/notes/batch/archive")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].id").value(note2))
+                .andExpect(jsonPath("$.data[1].id").value(note1))
+                .andExpect(jsonPath("$.data[0].archived").value(true))
+                .andExpect(jsonPath("$.data[1].archived").value(true));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void archiveNotes_withUnknownId_shouldReturnNotFound() throws Exception {
+        NoteBatchRequest request = new NoteBatchRequest(List.of(note1, 999_999L));
+
+        mockMvc.perform(post("/api/notes/batch/archive")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
     @Test
     @WithMockUser(username = "testuser", roles = {"USER"})
     void restoreArchive_shouldReturnListOfNotes() throws Exception {
@@ -95,6 +127,23 @@ class NoteBatchControllerIntegrationTest {
                 .andExpect(jsonPath("$.success").value(true));
     }
 
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void deletePermanent_shouldReportNotFoundIds() throws Exception {
+        NoteBatchRequest request = new NoteBatchRequest(List.of(note1, note2, 999_999L));
+
+        mockMvc.perform(delete("/api/notes/batch/permanent")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.deleted").value(2))
+                .andExpect(jsonPath("$.data.notFoundIds.length()").value(1))
+                .andExpect(jsonPath("$.data.notFoundIds[0]").value(999_999));
+
+        mockMvc.perform(get("/api/notes/" + note1))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @WithMockUser(username = "testuser", roles = {"USER"})
     void archiveNotes_withEmptyIds_shouldReturnValidationError() throws Exception {
@@ -119,6 +168,63 @@ class NoteBatchControllerIntegrationTest {
                 .andExpect(jsonPath("$.error.code").value("validation_error"));
     }
 
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void addTags_shouldLinkEveryNoteOnceAndRemoveTagsShouldUnlink() throws Exception {
+        Long ownerId = userService.findByUsernameOrThrow("testuser").getId();
+        Long tag1 = tagService.createTag(ownerId, "batch-" + note1 + "-a").getId();
+        Long tag2 = tagService.createTag(ownerId, "batch-" + note1 + "-b").getId();
+        NoteBatchTagRequest request = new NoteBatchTagRequest(List.of(note1, note2), List.of(tag1, tag2));
+
+        mockMvc.perform(post("/api/notes/batch/tags/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.notes").value(2))
+                .andExpect(jsonPath("$.data.changed").value(4));
+
+        // Existing links are skipped rather than failing the batch
+        mockMvc.perform(post("/api/notes/batch/tags/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.changed").value(0));
+
+        mockMvc.perform(get("/api/notes/" + note2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.tags.length()").value(2));
+
+        NoteBatchTagRequest remove = new NoteBatchTagRequest(List.of(note1, note2), List.of(tag1));
+        mockMvc.perform(post("/api/notes/batch/tags/remove")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(remove)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.changed").value(2));
+
+        mockMvc.perform(get("/api/notes/" + note1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.tags.length()").value(1))
+                .andExpect(jsonPath("$.data.tags[0].id").value(tag2));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void addTags_withUnknownTag_shouldReturnNotFoundAndLinkNothing() throws Exception {
+        Long ownerId = userService.findByUsernameOrThrow("testuser").getId();
+        Long tag = tagService.createTag(ownerId, "batch-" + note1 + "-c").getId();
+        NoteBatchTagRequest request = new NoteBatchTagRequest(List.of(note1), List.of(tag, 999_999L));
+
+        mockMvc.perform(post("/api/notes/batch/tags/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false));
+
+        mockMvc.perform(get("/api/notes/" + note1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.tags.length()").value(0));
+    }
+
     @org.junit.jupiter.api.BeforeEach
     void createNotes() {
         var user = userService.findByUsernameOrThrow("testuser");
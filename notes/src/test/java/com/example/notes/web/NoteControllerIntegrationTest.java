@@ -10,6 +10,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -50,4 +51,23 @@ class NoteControllerIntegrationTest {
                 .andExpect(jsonPath("$.data.title").value("Test note"));
     }
 
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void list_withEstimatedCount_shouldCountMatchesBeyondThePage() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/notes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new NoteCreateRequest("zqxw estimate " + i, "Body"))))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/notes")
+                        .param("q", "zqxw")
+                        .param("size", "1")
+                        .param("count", "estimate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(1))
+                .andExpect(jsonPath("$.data.totalElements").value(3))
+                .andExpect(jsonPath("$.data.hasNext").value(true));
+    }
 }
@@ -16,8 +16,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -91,4 +93,43 @@ class NoteTagControllerIntegrationTest {
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data.id").value(noteId.intValue()));
     }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void listNotes_withTagFilters_shouldCombineAllAnyAndExclude() throws Exception {
+        Long ownerId = userRepository.findByUsername("testuser").orElseThrow().getId();
+        Long both = noteService.createNote(ownerId, "Tagged both", "content").getId();
+        Long onlyA = noteService.createNote(ownerId, "Tagged a", "content").getId();
+        Long onlyB = noteService.createNote(ownerId, "Tagged b", "content").getId();
+        Long tagA = tagService.createTag(ownerId, "filter-a-" + both).getId();
+        Long tagB = tagService.createTag(ownerId, "filter-b-" + both).getId();
+        noteService.setTags(ownerId, both, List.of(tagA, tagB));
+        noteService.addTag(ownerId, onlyA, tagA);
+        noteService.addTag(ownerId, onlyB, tagB);
+
+        assertThat(listIds("tagIds", tagA + "," + tagB)).containsExactly(both);
+        assertThat(listIds("anyTagIds", tagA + "," + tagB)).containsExactlyInAnyOrder(both, onlyA, onlyB);
+        assertThat(listIds("anyTagIds", tagA + "," + tagB, "excludeTagIds", String.valueOf(tagB)))
+                .containsExactly(onlyA);
+        assertThat(listIds("excludeTagIds", String.valueOf(tagA)))
+                .contains(onlyB)
+                .doesNotContain(both, onlyA);
+
+        // Index follows later tag changes
+        noteService.removeTag(ownerId, both, tagB);
+        assertThat(listIds("tagIds", tagA + "," + tagB)).isEmpty();
+    }
+
+    private List<Long> listIds(String... params) throws Exception {
+        var request = get("/api/notes").param("size", "1000");
+        for (int i = 0; i < params.length; i += 2) {
+            request.param(params[i], params[i + 1]);
+        }
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Long> ids = new ArrayList<>();
+        objectMapper.readTree(body).at("/data/content").forEach(note -> ids.add(note.get("id").asLong()));
+        return ids;
+    }
 }
@@ -0,0 +1,10 @@
+package com.example.notes.web;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the tag filter scenarios against the in-memory tag index instead of the SQL subqueries.
+ */
+@TestPropertySource(properties = "notes.tags.index.enabled=true")
+class NoteTagIndexedIntegrationTest extends NoteTagControllerIntegrationTest {
+}
@@ -1,5 +1,7 @@
 package com.example.notes.web;
 
+import com.example.notes.note.NoteService;
+import com.example.notes.user.UserService;
 import com.example.notes.web.dto.TagCreateRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -24,6 +26,12 @@ class TagControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private UserService userService;
+
     @Test
     @WithMockUser(username = "testuser", roles = {"USER"})
     void createTag_shouldReturnApiResponse() throws Exception {
@@ -58,4 +66,37 @@ class TagControllerIntegrationTest {
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.error.code").value("validation_error"));
     }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void listTags_withCounts_shouldTrackTagChanges() throws Exception {
+        Long ownerId = userService.findByUsernameOrThrow("testuser").getId();
+        Long noteId = noteService.createNote(ownerId, "Counted note", "content").getId();
+        String name = "counted-" + noteId;
+        String body = mockMvc.perform(post("/api/tags")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TagCreateRequest(name))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long tagId = objectMapper.readTree(body).at("/data/id").asLong();
+        String countPath = "$.data[?(@.id == " + tagId + ")].noteCount";
+
+        mockMvc.perform(get("/api/tags").param("withCounts", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(countPath).value(0));
+
+        mockMvc.perform(put("/api/notes/" + noteId + "/tags/" + tagId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/tags").param("withCounts", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(countPath).value(1));
+
+        mockMvc.perform(delete("/api/notes/" + noteId + "/tags/" + tagId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/tags").param("withCounts", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(countPath).value(0));
+    }
 }